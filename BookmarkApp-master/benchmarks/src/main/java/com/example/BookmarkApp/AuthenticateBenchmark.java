@@ -0,0 +1,81 @@
+package com.example.BookmarkApp;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * OauthService.authenticate with the production password encoder at a fixed BCrypt cost,
+ * against an in-memory user table standing in for the natural-id lookup. Covers a correct
+ * password, a wrong one and an unknown user (which skips the hash entirely).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class AuthenticateBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({ "1000", "1000000" })
+    int users;
+
+    @Param({ "10", "12" })
+    int bcryptStrength;
+
+    private OauthService oauthService;
+    private String username;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder passwordEncoder = new SecurityConfig().passwordEncoder(Duration.ofMillis(100), bcryptStrength);
+        // Hashed at the current version and cost, so no rehash is scheduled
+        String hash = passwordEncoder.encode(PASSWORD);
+        Map<String, OauthUser> table = new HashMap<>(users * 2);
+        for (int i = 0; i < users; i++) {
+            OauthUser user = new OauthUser("user" + i, hash, "user" + i + "@example.com");
+            table.put(user.getUsername(), user);
+        }
+        OauthRepository repository = (OauthRepository) Proxy.newProxyInstance(OauthRepository.class.getClassLoader(),
+                new Class<?>[] { OauthRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findByUsername")) {
+                        return Optional.ofNullable(table.get((String) args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        oauthService = new OauthService(repository, null, passwordEncoder, null, null, null, null, null, null, null);
+        username = "user" + users / 2;
+    }
+
+    @Benchmark
+    public boolean correctPassword() {
+        return oauthService.authenticate(username, PASSWORD);
+    }
+
+    @Benchmark
+    public boolean wrongPassword() {
+        return oauthService.authenticate(username, "wrong horse battery staple");
+    }
+
+    @Benchmark
+    public boolean unknownUser() {
+        return oauthService.authenticate("nobody", PASSWORD);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.BookmarkApp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+
+/**
+ * Deterministic synthetic datasets, so every run and the baseline measure the same rows.
+ * Owners hold 20 public bookmarks on average, about one in ten is a favorite, and
+ * names, categories and tags come from small vocabularies so filters have realistic hit rates.
+ */
+final class BenchmarkData {
+    static final String[] CATEGORIES = { "Development", "Design", "News", "Research", "Tools", "Learning", "Music", "Other" };
+    private static final String[] WORDS = { "spring", "java", "vaadin", "postgres", "docker", "kotlin", "react",
+            "guide", "tutorial", "reference", "blog", "docs", "release", "notes", "api", "design", "cloud", "testing" };
+    private static final int TAG_VOCABULARY = 200;
+
+    private BenchmarkData() {
+    }
+
+    static List<Bookmark> publicBookmarks(int rows) {
+        Random random = new Random(42);
+        int owners = Math.max(1, rows / 20);
+        List<Bookmark> bookmarks = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            bookmarks.add(bookmark(random, i + 1L, "user" + random.nextInt(owners)));
+        }
+        return bookmarks;
+    }
+
+    static Bookmark bookmark(Random random, long id, String owner) {
+        String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+        StringJoiner tags = new StringJoiner(",");
+        for (int t = random.nextInt(5); t > 0; t--) {
+            tags.add("tag" + random.nextInt(TAG_VOCABULARY));
+        }
+        Bookmark bookmark = new Bookmark("https://example.com/" + id, name, tags.toString(), null, null,
+                CATEGORIES[random.nextInt(CATEGORIES.length)], owner);
+        bookmark.setId(id);
+        bookmark.setFavorite(random.nextInt(10) == 0);
+        bookmark.setVisibility(BookmarkVisibility.PUBLIC);
+        bookmark.setTags(BookmarkService.parseTags(bookmark.getTagsInput()));
+        return bookmark;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.BookmarkApp;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Runs the JMH benchmarks (any JMH command-line options are passed through), writes the
+ * results to target/jmh-result.json and compares every score with the same benchmark and
+ * parameters in baseline.json, which is committed so each commit's diff of it shows what
+ * changed. A benchmark regressed when its average time is above the baseline by more than
+ * benchmark.tolerance (default 0.20) plus the error margins of both runs.
+ *
+ *   java -jar target/benchmarks.jar                               all benchmarks
+ *   java -jar target/benchmarks.jar PublicFeed -p rows=1000       a subset
+ *   java -Dbenchmark.updateBaseline=true -jar target/benchmarks.jar   accept the new numbers
+ *
+ * The baseline is machine-specific: it records the processor count, architecture and JDK
+ * it was measured on. On a matching machine a regression exits with 1, so a CI step fails
+ * on the commit that regressed; elsewhere the comparison is printed as a warning only.
+ */
+public class BenchmarkRunner {
+    private static final Path RESULT = Path.of("target", "jmh-result.json");
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // Average time and its 99.9% error margin, in the benchmark's output unit
+    record Score(double score, double error) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path baseline = Path.of(System.getProperty("benchmark.baseline", "baseline.json"));
+        double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.20"));
+
+        Files.createDirectories(RESULT.getParent());
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT.toString())
+                .build()).run();
+
+        Map<String, Score> current = scores(RESULT);
+        if (Boolean.getBoolean("benchmark.updateBaseline")) {
+            Map<String, Score> merged = Files.exists(baseline) ? new TreeMap<>(baselineScores(baseline)) : new TreeMap<>();
+            merged.putAll(current);
+            writeBaseline(baseline, merged);
+            System.out.println("Baseline updated: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline + ", nothing to compare");
+            return;
+        }
+        Map<String, Object> recordedOn = machine(baseline);
+        boolean sameMachine = recordedOn.equals(thisMachine());
+        if (!sameMachine) {
+            System.out.println("WARNING: baseline recorded on " + recordedOn + ", this is " + thisMachine()
+                    + "; differences are reported but do not fail the run");
+        }
+        int regressions = compare(baselineScores(baseline), current, tolerance);
+        System.exit(regressions > 0 && sameMachine ? 1 : 0);
+    }
+
+    // Prints one line per benchmark measured in both runs and returns how many regressed
+    static int compare(Map<String, Score> baseline, Map<String, Score> current, double tolerance) {
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-100s %14.3f  (new)%n", entry.getKey(), now.score());
+                continue;
+            }
+            double change = now.score() / before.score() - 1;
+            boolean regressed = now.score() > before.score() * (1 + tolerance) + before.error() + now.error();
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-100s %14.3f  %+7.1f%%%s%n", entry.getKey(), now.score(), change * 100,
+                    regressed ? "  REGRESSION" : "");
+        }
+        System.out.println(regressions + " regression(s) beyond " + Math.round(tolerance * 100) + "% and the error margins");
+        return regressions;
+    }
+
+    // "Benchmark.method {param=value, ...}" -> score, from a JMH JSON result file
+    static Map<String, Score> scores(Path jmhJson) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : MAPPER.readTree(jmhJson.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String benchmark = result.path("benchmark").asText();
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            JsonNode metric = result.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble();
+            scores.put(name + " " + params, new Score(metric.path("score").asDouble(), Double.isNaN(error) ? 0 : error));
+        }
+        return scores;
+    }
+
+    static Map<String, Score> baselineScores(Path baseline) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        MAPPER.readTree(baseline.toFile()).path("scores").fields().forEachRemaining(entry -> scores.put(entry.getKey(),
+                new Score(entry.getValue().path("score").asDouble(), entry.getValue().path("error").asDouble())));
+        return scores;
+    }
+
+    // Only what decides whether numbers are comparable; no paths or host names
+    static Map<String, Object> thisMachine() {
+        Map<String, Object> machine = new TreeMap<>();
+        machine.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        machine.put("osArch", System.getProperty("os.arch"));
+        machine.put("javaVersion", System.getProperty("java.version"));
+        return machine;
+    }
+
+    private static Map<String, Object> machine(Path baseline) throws IOException {
+        return new TreeMap<>(MAPPER.convertValue(MAPPER.readTree(baseline.toFile()).path("machine"), Map.class));
+    }
+
+    private static void writeBaseline(Path baseline, Map<String, Score> scores) throws IOException {
+        Map<String, Object> file = new LinkedHashMap<>();
+        file.put("machine", thisMachine());
+        Map<String, Object> rounded = new LinkedHashMap<>();
+        scores.forEach((name, score) -> {
+            Map<String, Double> values = new LinkedHashMap<>();
+            values.put("score", round(score.score()));
+            values.put("error", round(score.error()));
+            rounded.put(name, values);
+        });
+        file.put("scores", rounded);
+        MAPPER.writeValue(baseline.toFile(), file);
+    }
+
+    // Three significant digits keep the committed file's diffs readable
+    private static double round(double value) {
+        return value == 0 || Double.isNaN(value) ? 0 : new BigDecimal(value).round(new MathContext(3)).doubleValue();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.BookmarkApp;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Grid ordering (favorites first, then by id), which replaced MainScreen.sortBookmarks:
+ * building the ordered public feed snapshot on load, and the in-place update applied
+ * to it when a bookmark is saved or deleted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FeedOrderBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    int rows;
+
+    private List<Bookmark> bookmarks;
+    private PublicFeedSnapshot snapshot;
+    private Bookmark saved;
+    private Bookmark deleted;
+
+    @Setup
+    public void setUp() {
+        bookmarks = BenchmarkData.publicBookmarks(rows);
+        snapshot = PublicFeedSnapshot.of(bookmarks);
+        saved = BenchmarkData.bookmark(new Random(7), rows + 1L, "user0");
+        saved.setFavorite(true);
+        deleted = bookmarks.get(rows / 2);
+    }
+
+    @Benchmark
+    public Object loadSnapshot() {
+        return PublicFeedSnapshot.of(bookmarks);
+    }
+
+    @Benchmark
+    public void saveBookmark() {
+        snapshot.apply(saved);
+    }
+
+    // Delete and save back, so every invocation sees the same snapshot
+    @Benchmark
+    public void deleteBookmark() {
+        snapshot.remove(deleted.getId());
+        snapshot.apply(deleted);
+    }
+}
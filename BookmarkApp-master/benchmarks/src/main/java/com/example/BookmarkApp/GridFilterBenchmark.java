@@ -0,0 +1,72 @@
+package com.example.BookmarkApp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The name, category and tag predicates behind MainScreen.applyFilters and
+ * applyTagsFilter, on a plan-capped public feed (uncapped searches are indexed SQL,
+ * see PublicFeedSnapshot.supports). Each operation is what a filter change costs
+ * the grid: build the filter, count the rows, read the first page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class GridFilterBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    int rows;
+
+    @Param({ "Free", "Pro" })
+    String plan;
+
+    private PublicFeedSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        snapshot = PublicFeedSnapshot.of(BenchmarkData.publicBookmarks(rows));
+    }
+
+    @Benchmark
+    public long nameFilter() {
+        return reload(feed().withNameContaining("Spring"));
+    }
+
+    @Benchmark
+    public long categoryFilter() {
+        return reload(feed().withCategory("design"));
+    }
+
+    @Benchmark
+    public long tagsFilter() {
+        return reload(feed().withTags(BookmarkService.parseTags(" Tag7, tag42 ")));
+    }
+
+    @Benchmark
+    public long combinedFilter() {
+        return reload(feed().withNameContaining("guide").withCategory("Development")
+                .withTags(BookmarkService.parseTags("tag7")));
+    }
+
+    private BookmarkFilter feed() {
+        return BookmarkFilter.publicFeed(BookmarkService.maxUsersForPlan(plan));
+    }
+
+    private long reload(BookmarkFilter filter) {
+        return snapshot.count(filter) + snapshot.page(filter, null, 0, 50).size();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.BookmarkApp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of producing the payment-success response body: encoding the page on every request
+ * (what the controller used to do), the same plus gzip (what response compression would
+ * add), and the prebuilt representation PaymentSuccessPage serves. The page was never built
+ * per request: the old controller's HTML, like render(), is a concatenation of literals that
+ * javac folds into one constant, so the old path cost only encoding and compression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentSuccessPageBenchmark {
+
+    private PaymentSuccessPage page;
+
+    @Setup
+    public void setUp() {
+        page = new PaymentSuccessPage();
+    }
+
+    @Benchmark
+    public byte[] encodePerRequest() {
+        return PaymentSuccessPage.render().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] gzipPerRequest() throws IOException {
+        byte[] html = PaymentSuccessPage.render().getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(html.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(html);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] precomputedGzip() {
+        return page.select("gzip, deflate, br").body();
+    }
+}
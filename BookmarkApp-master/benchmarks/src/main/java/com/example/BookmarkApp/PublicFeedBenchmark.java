@@ -0,0 +1,59 @@
+package com.example.BookmarkApp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BookmarkService.getAllPublicBookmarks: the plan's owner cap applied to the shared
+ * public feed snapshot, for the first grid page, a scrolled page and the row count.
+ * The service itself only adds the session check and the snapshot lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PublicFeedBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    int rows;
+
+    @Param({ "Free", "Pro", "Ultra" })
+    String plan;
+
+    private PublicFeedSnapshot snapshot;
+    private BookmarkFilter filter;
+
+    @Setup
+    public void setUp() {
+        snapshot = PublicFeedSnapshot.of(BenchmarkData.publicBookmarks(rows));
+        filter = BookmarkFilter.publicFeed(BookmarkService.maxUsersForPlan(plan));
+    }
+
+    @Benchmark
+    public Object firstPage() {
+        return snapshot.page(filter, null, 0, 50);
+    }
+
+    @Benchmark
+    public Object scrolledPage() {
+        return snapshot.page(filter, null, 1000, 50);
+    }
+
+    @Benchmark
+    public long count() {
+        return snapshot.count(filter);
+    }
+}
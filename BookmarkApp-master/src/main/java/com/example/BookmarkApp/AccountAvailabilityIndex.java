@@ -0,0 +1,246 @@
+package com.example.BookmarkApp;
+
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Answers "is this username / email taken?" for the live sign-up check without a
+ * query per keystroke. Bloom filters over every username and email are streamed from
+ * oauth_users at startup, updated on signup and refreshed every refresh-interval with
+ * accounts created on other instances; a definite miss is answered from memory, only a
+ * probable hit goes on to the indexed lookup. Until the first load finishes every check
+ * goes to the database. Values are kept exactly as the unique constraints compare them.
+ * Between refreshes a name taken on another instance can still show as available, so
+ * this only serves the live check; signUp checks the database itself.
+ *
+ * Metrics: account.availability.checks{field, outcome} and
+ * account.availability.false.positive.rate{field} (probable hits the database did not confirm).
+ */
+@Component
+public class AccountAvailabilityIndex implements CommandLineRunner {
+    // Identity ids are assigned at insert but become visible at commit, so a row can appear
+    // below one already seen; each refresh re-reads this many ids back
+    private static final long ID_OVERLAP = 1000;
+
+    private final OauthRepository oauthRepository;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+    private final Duration refreshInterval;
+    private final Field usernames;
+    private final Field emails;
+
+    // Signups seen while a rebuild streams the table, replayed into the new filters
+    private final List<String[]> signupsDuringRebuild = new ArrayList<>();
+    private boolean rebuilding;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private long lastSeenId;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-availability-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // One filter plus its counters; filter is null until loaded
+    private static final class Field {
+        volatile BloomFilter filter;
+        long inserted;
+        final Counter definitelyAbsent;
+        final Counter confirmed;
+        final Counter falsePositive;
+
+        Field(String name, MeterRegistry meterRegistry) {
+            definitelyAbsent = meterRegistry.counter("account.availability.checks", "field", name, "outcome", "definitely_absent");
+            confirmed = meterRegistry.counter("account.availability.checks", "field", name, "outcome", "taken");
+            falsePositive = meterRegistry.counter("account.availability.checks", "field", name, "outcome", "false_positive");
+            Gauge.builder("account.availability.false.positive.rate", this, Field::observedFalsePositiveRate)
+                    .tag("field", name)
+                    .register(meterRegistry);
+        }
+
+        double observedFalsePositiveRate() {
+            double probableHits = confirmed.count() + falsePositive.count();
+            return probableHits == 0 ? 0 : falsePositive.count() / probableHits;
+        }
+    }
+
+    public AccountAvailabilityIndex(OauthRepository oauthRepository, TaskExecutor taskExecutor,
+                                    PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                    @Value("${app.signup.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                                    @Value("${app.signup.availability.min-capacity:100000}") long minCapacity,
+                                    @Value("${app.signup.availability.refresh-interval:30s}") Duration refreshInterval) {
+        this.oauthRepository = oauthRepository;
+        this.taskExecutor = taskExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.refreshInterval = refreshInterval;
+        this.usernames = new Field("username", meterRegistry);
+        this.emails = new Field("email", meterRegistry);
+    }
+
+    // Load in the background; startup does not wait for the table scan
+    @Override
+    public void run(String... args) {
+        scheduleRebuild();
+        refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    public boolean isUsernameTaken(String username) {
+        return isTaken(usernames, username, () -> oauthRepository.findByUsername(username).isPresent());
+    }
+
+    public boolean isEmailTaken(String email) {
+        return isTaken(emails, email, () -> oauthRepository.existsByEmail(email));
+    }
+
+    // Called for every new account (signup or first OAuth login) after its commit, and by refresh
+    public synchronized void recordAccount(String username, String email) {
+        put(usernames, username);
+        put(emails, email);
+        if (rebuilding) {
+            signupsDuringRebuild.add(new String[] { username, email });
+        } else if (usernames.filter != null && Math.max(usernames.inserted, emails.inserted) > usernames.filter.expectedInsertions()) {
+            // Past capacity the false-positive rate climbs; rebuild with room to grow
+            scheduleRebuild();
+        }
+    }
+
+    private boolean isTaken(Field field, String value, BooleanSupplier lookup) {
+        if (value == null || value.isBlank()) {
+            return false;
+        }
+        BloomFilter filter = field.filter;
+        if (filter != null && !filter.mightContain(value)) {
+            field.definitelyAbsent.increment();
+            return false;
+        }
+        boolean taken = lookup.getAsBoolean();
+        if (filter != null) {
+            (taken ? field.confirmed : field.falsePositive).increment();
+        }
+        return taken;
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    System.out.println("Account availability index load failed: " + e);
+                    synchronized (this) {
+                        rebuilding = false;
+                        signupsDuringRebuild.clear();
+                    }
+                } finally {
+                    rebuildScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    void rebuild() {
+        synchronized (this) {
+            rebuilding = true;
+            signupsDuringRebuild.clear();
+        }
+        long capacity = Math.max(minCapacity, oauthRepository.count() * 2);
+        long maxId = oauthRepository.findMaxId();
+        BloomFilter newUsernames = new BloomFilter(capacity, falsePositiveRate);
+        BloomFilter newEmails = new BloomFilter(capacity, falsePositiveRate);
+        long[] loaded = new long[2];
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = oauthRepository.streamUsernamesAndEmails()) {
+                rows.forEach(row -> {
+                    if (row[0] != null) {
+                        newUsernames.put((String) row[0]);
+                        loaded[0]++;
+                    }
+                    if (row[1] != null) {
+                        newEmails.put((String) row[1]);
+                        loaded[1]++;
+                    }
+                });
+            }
+        });
+        synchronized (this) {
+            usernames.filter = newUsernames;
+            usernames.inserted = loaded[0];
+            emails.filter = newEmails;
+            emails.inserted = loaded[1];
+            lastSeenId = Math.max(lastSeenId, maxId);
+            for (String[] signup : signupsDuringRebuild) {
+                put(usernames, signup[0]);
+                put(emails, signup[1]);
+            }
+            signupsDuringRebuild.clear();
+            rebuilding = false;
+        }
+        System.out.println("Account availability index loaded: " + loaded[0] + " usernames, "
+                + loaded[1] + " emails, capacity " + capacity);
+    }
+
+    // Adds accounts created since the last load or refresh, including those from other instances
+    void refresh() {
+        long after;
+        synchronized (this) {
+            if (usernames.filter == null) {
+                return;
+            }
+            after = Math.max(0, lastSeenId - ID_OVERLAP);
+        }
+        try {
+            long[] maxId = { after };
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = oauthRepository.streamAccountsAfter(after)) {
+                    rows.forEach(row -> {
+                        recordAccount((String) row[1], (String) row[2]);
+                        maxId[0] = (Long) row[0];
+                    });
+                }
+            });
+            synchronized (this) {
+                lastSeenId = Math.max(lastSeenId, maxId[0]);
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Account availability index refresh failed: " + e);
+        }
+    }
+
+    private static void put(Field field, String value) {
+        BloomFilter filter = field.filter;
+        // Values already present (refresh overlap, replayed signups) are not counted again
+        if (filter != null && value != null && !filter.mightContain(value)) {
+            filter.put(value);
+            field.inserted++;
+        }
+    }
+}
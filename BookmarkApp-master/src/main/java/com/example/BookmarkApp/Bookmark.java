@@ -1,17 +1,33 @@
 package com.example.BookmarkApp;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "bookmarks")
+@Table(name = "bookmarks", indexes = {
+    // Serves the favorite-first grid ordering straight from the index
+    @Index(name = "idx_bookmarks_username_favorite_id", columnList = "username, favorite DESC, id")
+})
 public class Bookmark {
+    // Pooled sequence (50 ids per round trip) so Hibernate can batch INSERTs; IDENTITY forbids batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookmark_id_seq")
+    @SequenceGenerator(name = "bookmark_id_seq", sequenceName = "bookmark_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(length = 2048)
@@ -23,11 +39,22 @@ public class Bookmark {
     @Column(name = "tags_input", length = 500)
     private String tagsInput;
     
-    @Column(name = "favorite_option", length = 10)
-    private String favoriteOption;
+    // Normalized copy of tagsInput, kept in sync by BookmarkService on save
+    @ElementCollection
+    @CollectionTable(name = "bookmark_tags", joinColumns = @JoinColumn(name = "bookmark_id"),
+        indexes = @Index(name = "idx_bookmark_tags_tag", columnList = "tag, bookmark_id"))
+    @Column(name = "tag", length = 100, nullable = false)
+    private Set<String> tags = new HashSet<>();
+    
+    // Compact flags; the defaults let schema update add the columns to a populated table
+    @ColumnDefault("false")
+    @Column(name = "favorite", nullable = false)
+    private boolean favorite;
     
-    @Column(name = "security_option", length = 20)
-    private String securityOption;
+    @ColumnDefault("false")
+    @Convert(converter = BookmarkVisibilityConverter.class)
+    @Column(name = "is_public", nullable = false)
+    private BookmarkVisibility visibility = BookmarkVisibility.PRIVATE;
     
     @Column(length = 100)
     private String category;
@@ -43,8 +70,8 @@ public class Bookmark {
         this.url = url;
         this.displayName = displayName;
         this.tagsInput = tagsInput;
-        this.favoriteOption = favoriteOption;
-        this.securityOption = securityOption;
+        setFavoriteOption(favoriteOption);
+        setSecurityOption(securityOption);
         this.category = category;
         this.username = "unknown"; // Default value for existing data
     }
@@ -54,8 +81,8 @@ public class Bookmark {
         this.url = url;
         this.displayName = displayName;
         this.tagsInput = tagsInput;
-        this.favoriteOption = favoriteOption;
-        this.securityOption = securityOption;
+        setFavoriteOption(favoriteOption);
+        setSecurityOption(securityOption);
         this.category = category;
         this.username = username;
     }
@@ -84,17 +111,40 @@ public class Bookmark {
     public void setTagsInput(String tagsInput) {
         this.tagsInput = tagsInput;
     }
+    public Set<String> getTags() {
+        return tags;
+    }
+    public void setTags(Set<String> tags) {
+        this.tags = tags;
+    }
+    public boolean isFavorite() {
+        return favorite;
+    }
+    public void setFavorite(boolean favorite) {
+        this.favorite = favorite;
+    }
+    public BookmarkVisibility getVisibility() {
+        return visibility;
+    }
+    public void setVisibility(BookmarkVisibility visibility) {
+        this.visibility = visibility != null ? visibility : BookmarkVisibility.PRIVATE;
+    }
+    public boolean isPublic() {
+        return visibility == BookmarkVisibility.PUBLIC;
+    }
+    
+    // "Yes"/"No" and "Public"/"Private" views of the flags, for the screens and older callers
     public String getFavoriteOption() {
-        return favoriteOption;
+        return favorite ? "Yes" : "No";
     }
     public void setFavoriteOption(String favoriteOption) {
-        this.favoriteOption = favoriteOption;
+        this.favorite = "Yes".equals(favoriteOption);
     }
     public String getSecurityOption() {
-        return securityOption;
+        return visibility.getLabel();
     }
     public void setSecurityOption(String securityOption) {
-        this.securityOption = securityOption;
+        this.visibility = BookmarkVisibility.fromLabel(securityOption);
     }
     public void setCategory(String category){
         this.category = category;
@@ -2,9 +2,15 @@ package com.example.BookmarkApp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 
 @SpringBootApplication
-public class BookmarkAppApplication {
+@EnableCaching
+@Push
+public class BookmarkAppApplication implements AppShellConfigurator {
 
 	public static void main(String[] args) {
 		SpringApplication.run(BookmarkAppApplication.class, args);
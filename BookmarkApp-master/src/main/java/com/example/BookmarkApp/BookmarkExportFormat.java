@@ -0,0 +1,186 @@
+package com.example.BookmarkApp;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Export formats. Each writer emits one bookmark at a time straight to the
+ * response, so nothing but the current row is held in memory.
+ */
+public enum BookmarkExportFormat {
+    HTML("text/html", "html") {
+        @Override
+        public BookmarkExportWriter newWriter(Writer out) {
+            return new NetscapeHtmlWriter(out);
+        }
+    },
+    JSON("application/json", "json") {
+        @Override
+        public BookmarkExportWriter newWriter(Writer out) {
+            return new JsonWriter(out);
+        }
+    },
+    CSV("text/csv", "csv") {
+        @Override
+        public BookmarkExportWriter newWriter(Writer out) {
+            return new CsvWriter(out);
+        }
+    };
+
+    private final String contentType;
+    private final String extension;
+
+    BookmarkExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public abstract BookmarkExportWriter newWriter(Writer out);
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public interface BookmarkExportWriter {
+        void begin() throws IOException;
+
+        void write(Bookmark bookmark) throws IOException;
+
+        void end() throws IOException;
+    }
+
+    // Netscape bookmark file, the format every browser imports
+    private static class NetscapeHtmlWriter implements BookmarkExportWriter {
+        private final Writer out;
+
+        NetscapeHtmlWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.write("<!DOCTYPE NETSCAPE-Bookmark-file-1>\n"
+                    + "<META HTTP-EQUIV=\"Content-Type\" CONTENT=\"text/html; charset=UTF-8\">\n"
+                    + "<TITLE>Bookmarks</TITLE>\n<H1>Bookmarks</H1>\n<DL><p>\n");
+        }
+
+        @Override
+        public void write(Bookmark bookmark) throws IOException {
+            out.write("    <DT><A HREF=\"" + escapeHtml(bookmark.getUrl()) + "\"");
+            if (bookmark.getTagsInput() != null && !bookmark.getTagsInput().isBlank()) {
+                out.write(" TAGS=\"" + escapeHtml(bookmark.getTagsInput()) + "\"");
+            }
+            out.write(">" + escapeHtml(bookmark.getDisplayName()) + "</A>\n");
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.write("</DL><p>\n");
+        }
+
+        private static String escapeHtml(String text) {
+            if (text == null) {
+                return "";
+            }
+            return text.replace("&", "&amp;")
+                       .replace("<", "&lt;")
+                       .replace(">", "&gt;")
+                       .replace("\"", "&quot;");
+        }
+    }
+
+    // A JSON array of flat bookmark objects
+    private static class JsonWriter implements BookmarkExportWriter {
+        private final Writer out;
+        private boolean first = true;
+
+        JsonWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.write("[\n");
+        }
+
+        @Override
+        public void write(Bookmark bookmark) throws IOException {
+            out.write(first ? "  {" : ",\n  {");
+            first = false;
+            out.write("\"url\":" + quote(bookmark.getUrl())
+                    + ",\"name\":" + quote(bookmark.getDisplayName())
+                    + ",\"tags\":" + quote(bookmark.getTagsInput())
+                    + ",\"category\":" + quote(bookmark.getCategory())
+                    + ",\"favorite\":" + bookmark.isFavorite()
+                    + ",\"visibility\":" + quote(bookmark.getSecurityOption()) + "}");
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.write("\n]\n");
+        }
+
+        private static String quote(String text) {
+            if (text == null) {
+                return "null";
+            }
+            StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+            for (char c : text.toCharArray()) {
+                switch (c) {
+                    case '"' -> quoted.append("\\\"");
+                    case '\\' -> quoted.append("\\\\");
+                    case '\n' -> quoted.append("\\n");
+                    case '\r' -> quoted.append("\\r");
+                    case '\t' -> quoted.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            quoted.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            quoted.append(c);
+                        }
+                    }
+                }
+            }
+            return quoted.append('"').toString();
+        }
+    }
+
+    // RFC 4180 CSV with a header row
+    private static class CsvWriter implements BookmarkExportWriter {
+        private final Writer out;
+
+        CsvWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.write("url,name,tags,category,favorite,visibility\r\n");
+        }
+
+        @Override
+        public void write(Bookmark bookmark) throws IOException {
+            out.write(field(bookmark.getUrl()) + "," + field(bookmark.getDisplayName()) + ","
+                    + field(bookmark.getTagsInput()) + "," + field(bookmark.getCategory()) + ","
+                    + field(bookmark.getFavoriteOption()) + "," + field(bookmark.getSecurityOption()) + "\r\n");
+        }
+
+        @Override
+        public void end() {
+        }
+
+        private static String field(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.BookmarkApp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Streams a user's bookmarks to an output stream. Rows come from a server-side
+ * cursor (see BookmarkRepository.streamByUsername) and are detached as soon as
+ * they are written, so heap use does not grow with the size of the collection.
+ */
+@Service
+public class BookmarkExportService {
+    private static final int FLUSH_EVERY = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final BookmarkRepository bookmarkRepository;
+
+    private final ReadYourWritesTracker readYourWrites;
+
+    public BookmarkExportService(BookmarkRepository bookmarkRepository, ReadYourWritesTracker readYourWrites) {
+        this.bookmarkRepository = bookmarkRepository;
+        this.readYourWrites = readYourWrites;
+    }
+
+    // The transaction keeps the cursor open; Postgres only honours the fetch size inside one
+    @Transactional(readOnly = true)
+    public void export(String username, BookmarkExportFormat format, OutputStream out) throws IOException {
+        readYourWrites.bindReader(username); // downloads run outside the UI lock, so name the reader
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        BookmarkExportFormat.BookmarkExportWriter exportWriter = format.newWriter(writer);
+        exportWriter.begin();
+        try (Stream<Bookmark> bookmarks = bookmarkRepository.streamByUsername(username)) {
+            int[] written = {0};
+            bookmarks.forEach(bookmark -> {
+                try {
+                    exportWriter.write(bookmark);
+                    entityManager.detach(bookmark);
+                    if (++written[0] % FLUSH_EVERY == 0) {
+                        writer.flush(); // start sending bytes before the whole export is read
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        exportWriter.end();
+        writer.flush();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.BookmarkApp;
+
+import java.util.Set;
+
+/**
+ * Describes which bookmarks a grid page is read from: either one owner's
+ * bookmarks, or the public feed capped to a number of distinct owners,
+ * optionally narrowed by a name substring, a category, a set of tags and a
+ * ranked full-text query. Instances are immutable; the with-methods return copies.
+ */
+public class BookmarkFilter {
+    private String username;
+    private int maxPublicOwners = -1;
+    private String publicOwner;
+    private String publicOwnerContains;
+    private String nameContains;
+    private String category;
+    private Set<String> tags = Set.of();
+    private String fullText;
+
+    private BookmarkFilter() {
+    }
+
+    // All bookmarks owned by a user
+    public static BookmarkFilter ownedBy(String username) {
+        BookmarkFilter filter = new BookmarkFilter();
+        filter.username = username;
+        return filter;
+    }
+
+    // Public bookmarks from at most maxOwners distinct users (-1 = unlimited)
+    public static BookmarkFilter publicFeed(int maxOwners) {
+        BookmarkFilter filter = new BookmarkFilter();
+        filter.maxPublicOwners = maxOwners;
+        return filter;
+    }
+
+    // Public feed narrowed to one owner; empty if that owner falls outside the plan cap
+    public BookmarkFilter withPublicOwner(String owner) {
+        BookmarkFilter copy = copy();
+        copy.publicOwner = owner;
+        return copy;
+    }
+
+    // Public feed narrowed to owners whose username contains term; the cap applies to the matching owners
+    public BookmarkFilter withPublicOwnerContaining(String term) {
+        BookmarkFilter copy = copy();
+        copy.publicOwnerContains = term == null || term.isBlank() ? null : term.trim();
+        return copy;
+    }
+
+    // Case-insensitive substring match on the display name; blank clears it
+    public BookmarkFilter withNameContaining(String term) {
+        BookmarkFilter copy = copy();
+        copy.nameContains = term == null || term.isBlank() ? null : term.trim();
+        return copy;
+    }
+
+    // Case-insensitive category match; blank clears it
+    public BookmarkFilter withCategory(String category) {
+        BookmarkFilter copy = copy();
+        copy.category = category == null || category.isBlank() ? null : category;
+        return copy;
+    }
+
+    // Bookmarks must carry every one of these normalized tags
+    public BookmarkFilter withTags(Set<String> tags) {
+        BookmarkFilter copy = copy();
+        copy.tags = Set.copyOf(tags);
+        return copy;
+    }
+
+    // Multi-word search over name, tags and URL, ordered by relevance; blank clears it
+    public BookmarkFilter withFullText(String text) {
+        BookmarkFilter copy = copy();
+        copy.fullText = text == null || text.isBlank() ? null : text.trim();
+        return copy;
+    }
+
+    private BookmarkFilter copy() {
+        BookmarkFilter copy = new BookmarkFilter();
+        copy.username = username;
+        copy.maxPublicOwners = maxPublicOwners;
+        copy.publicOwner = publicOwner;
+        copy.publicOwnerContains = publicOwnerContains;
+        copy.nameContains = nameContains;
+        copy.category = category;
+        copy.tags = tags;
+        copy.fullText = fullText;
+        return copy;
+    }
+
+    public boolean isPublicFeed() {
+        return username == null;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getMaxPublicOwners() {
+        return maxPublicOwners;
+    }
+
+    public String getPublicOwner() {
+        return publicOwner;
+    }
+
+    public String getPublicOwnerContains() {
+        return publicOwnerContains;
+    }
+
+    public String getNameContains() {
+        return nameContains;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public Set<String> getTags() {
+        return tags;
+    }
+
+    public String getFullText() {
+        return fullText;
+    }
+}
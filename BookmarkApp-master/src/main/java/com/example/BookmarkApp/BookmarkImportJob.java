@@ -0,0 +1,79 @@
+package com.example.BookmarkApp;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one background import. Counters are updated by the import thread
+ * and may be read from any UI thread.
+ */
+public class BookmarkImportJob {
+    public enum State { RUNNING, DONE, FAILED }
+
+    private final String username;
+    private final String fileName;
+    private final long totalBytes;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile String error;
+
+    public BookmarkImportJob(String username, String fileName, long totalBytes) {
+        this.username = username;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+    }
+
+    // Fraction of the file consumed so far, 0.0 - 1.0
+    public double getProgress() {
+        if (state != State.RUNNING) {
+            return 1.0;
+        }
+        return totalBytes <= 0 ? 0.0 : Math.min(1.0, (double) bytesRead.get() / totalBytes);
+    }
+
+    void setBytesRead(long bytes) {
+        bytesRead.set(bytes);
+    }
+
+    void addImported(long count) {
+        imported.addAndGet(count);
+    }
+
+    void addSkipped() {
+        skipped.incrementAndGet();
+    }
+
+    void finish() {
+        state = State.DONE;
+    }
+
+    void fail(String message) {
+        error = message;
+        state = State.FAILED;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.BookmarkApp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming parsers for browser bookmark exports. Entries are handed to the
+ * consumer one at a time, so memory stays flat whatever the file size.
+ * Supported formats: Netscape bookmark HTML (all major browsers) and the JSON
+ * exports of Chrome and Firefox. The enclosing folder becomes the category.
+ */
+public class BookmarkImportParser {
+    private static final String DEFAULT_CATEGORY = "Imported";
+
+    private static final Pattern FOLDER = Pattern.compile("<H3[^>]*>(.*?)</H3>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LINK = Pattern.compile("<A\\s([^>]*)>(.*?)</A>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HREF = Pattern.compile("HREF=\"([^\"]*)\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TAGS = Pattern.compile("TAGS=\"([^\"]*)\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FOLDER_END = Pattern.compile("</DL>", Pattern.CASE_INSENSITIVE);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private BookmarkImportParser() {
+    }
+
+    // Netscape bookmark file: one <DT> entry per line, folders are <H3> followed by a nested <DL>
+    public static void parseNetscapeHtml(Reader reader, Consumer<ImportedBookmark> consumer) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        Deque<String> folders = new ArrayDeque<>();
+        String line;
+        while ((line = lines.readLine()) != null) {
+            Matcher folder = FOLDER.matcher(line);
+            if (folder.find()) {
+                folders.push(unescapeHtml(folder.group(1)).trim());
+                continue;
+            }
+            Matcher link = LINK.matcher(line);
+            if (link.find()) {
+                Matcher href = HREF.matcher(link.group(1));
+                if (href.find()) {
+                    Matcher tags = TAGS.matcher(link.group(1));
+                    consumer.accept(new ImportedBookmark(
+                            unescapeHtml(href.group(1)),
+                            unescapeHtml(link.group(2)).trim(),
+                            tags.find() ? unescapeHtml(tags.group(1)) : null,
+                            folders.isEmpty() ? DEFAULT_CATEGORY : folders.peek()));
+                }
+                continue;
+            }
+            if (FOLDER_END.matcher(line).find() && !folders.isEmpty()) {
+                folders.pop();
+            }
+        }
+    }
+
+    // Chrome ("name"/"url"/"children") and Firefox ("title"/"uri"/"tags"/"children") JSON trees
+    public static void parseJson(InputStream in, Consumer<ImportedBookmark> consumer) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.START_OBJECT) {
+                    parseJsonNode(parser, DEFAULT_CATEGORY, consumer);
+                }
+            }
+        }
+    }
+
+    // Reads one object; scalar fields are collected, "children" arrays recurse with this node as folder
+    private static void parseJsonNode(JsonParser parser, String category, Consumer<ImportedBookmark> consumer) throws IOException {
+        String name = null;
+        String url = null;
+        String tags = null;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_OBJECT && token != null) {
+            String field = parser.currentName();
+            token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY && "children".equals(field)) {
+                String folder = name != null && !name.isBlank() ? name.trim() : category;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    if (token == JsonToken.START_OBJECT) {
+                        parseJsonNode(parser, folder, consumer);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                // e.g. Chrome's "roots": { "bookmark_bar": {...}, ... }
+                parseJsonNode(parser, category, consumer);
+            } else if (token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else if (token == JsonToken.VALUE_STRING) {
+                switch (field) {
+                    case "name", "title" -> name = parser.getText();
+                    case "url", "uri" -> url = parser.getText();
+                    case "tags" -> tags = parser.getText();
+                    default -> { }
+                }
+            }
+        }
+        if (url != null) {
+            consumer.accept(new ImportedBookmark(url, name != null ? name.trim() : url, tags, category));
+        }
+    }
+
+    private static String unescapeHtml(String text) {
+        return text.replace("&lt;", "<")
+                   .replace("&gt;", ">")
+                   .replace("&quot;", "\"")
+                   .replace("&#39;", "'")
+                   .replace("&amp;", "&");
+    }
+
+    public record ImportedBookmark(String url, String displayName, String tags, String category) {
+    }
+}
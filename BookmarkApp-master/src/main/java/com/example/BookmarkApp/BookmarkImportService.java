@@ -0,0 +1,170 @@
+package com.example.BookmarkApp;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Imports browser bookmark exports in the background. The file is parsed as a
+ * stream and written in fixed-size chunks, one transaction per chunk; inside a
+ * chunk Hibernate batches the INSERTs (hibernate.jdbc.batch_size) thanks to the
+ * pooled sequence ids on Bookmark.
+ */
+@Service
+public class BookmarkImportService {
+    private static final int CHUNK_SIZE = 500;
+    private static final int FLUSH_SIZE = 50; // matches hibernate.jdbc.batch_size
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+
+    private final ReadYourWritesTracker readYourWrites;
+
+    public BookmarkImportService(TransactionTemplate transactionTemplate, TaskExecutor taskExecutor,
+                                 ReadYourWritesTracker readYourWrites) {
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * Start importing the uploaded file for username. onProgress is called from the
+     * import thread after every chunk and once more when the job ends; the file is
+     * deleted afterwards.
+     */
+    public BookmarkImportJob startImport(String username, String fileName, Path file, Consumer<BookmarkImportJob> onProgress)
+            throws IOException {
+        BookmarkImportJob job = new BookmarkImportJob(username, fileName, Files.size(file));
+        taskExecutor.execute(() -> {
+            try {
+                runImport(job, file, onProgress);
+                job.finish();
+            } catch (Exception e) {
+                System.err.println("Bookmark import failed for " + username + ": " + e.getMessage());
+                job.fail(e.getMessage());
+            } finally {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    System.err.println("Could not delete import file " + file + ": " + e.getMessage());
+                }
+                onProgress.accept(job);
+            }
+        });
+        return job;
+    }
+
+    private void runImport(BookmarkImportJob job, Path file, Consumer<BookmarkImportJob> onProgress) throws IOException {
+        List<Bookmark> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (CountingInputStream in = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            Consumer<BookmarkImportParser.ImportedBookmark> collector = entry -> {
+                Bookmark bookmark = toBookmark(entry, job.getUsername());
+                if (bookmark == null) {
+                    job.addSkipped();
+                    return;
+                }
+                chunk.add(bookmark);
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk);
+                    job.addImported(chunk.size());
+                    job.setBytesRead(in.getCount());
+                    chunk.clear();
+                    onProgress.accept(job);
+                }
+            };
+
+            if (isJson(job.getFileName())) {
+                BookmarkImportParser.parseJson(in, collector);
+            } else {
+                BookmarkImportParser.parseNetscapeHtml(new InputStreamReader(in, StandardCharsets.UTF_8), collector);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk);
+            job.addImported(chunk.size());
+        }
+    }
+
+    // One transaction per chunk; flush/clear every FLUSH_SIZE so the persistence context stays small
+    private void writeChunk(List<Bookmark> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                entityManager.persist(chunk.get(i));
+                if ((i + 1) % FLUSH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        readYourWrites.recordWrite(chunk.get(0).getUsername());
+    }
+
+    private Bookmark toBookmark(BookmarkImportParser.ImportedBookmark entry, String username) {
+        String url = entry.url() == null ? "" : entry.url().trim();
+        String lower = url.toLowerCase();
+        if (!(lower.startsWith("http://") || lower.startsWith("https://")) || url.length() > 2048) {
+            return null; // javascript:, place:, file: and oversized URLs are not importable
+        }
+        String displayName = entry.displayName() == null || entry.displayName().isBlank() ? url : entry.displayName();
+        Bookmark bookmark = new Bookmark(url, truncate(displayName, 255), truncate(entry.tags(), 500),
+                "No", "Private", truncate(entry.category(), 100), username);
+        bookmark.setTags(BookmarkService.parseTags(bookmark.getTagsInput()));
+        return bookmark;
+    }
+
+    private static boolean isJson(String fileName) {
+        return fileName != null && fileName.toLowerCase().endsWith(".json");
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
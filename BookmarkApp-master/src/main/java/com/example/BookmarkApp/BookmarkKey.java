@@ -0,0 +1,12 @@
+package com.example.BookmarkApp;
+
+/**
+ * Position of a bookmark in the grid ordering (favorites first, then by id).
+ * Used as the seek key for keyset pagination.
+ */
+public record BookmarkKey(boolean favorite, long id) {
+
+    public static BookmarkKey of(Bookmark bookmark) {
+        return new BookmarkKey(bookmark.isFavorite(), bookmark.getId());
+    }
+}
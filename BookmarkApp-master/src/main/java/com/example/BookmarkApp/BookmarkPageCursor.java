@@ -0,0 +1,36 @@
+package com.example.BookmarkApp;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers where each fetched grid page ended, so that scrolling forward can
+ * seek past the last key instead of making the database skip OFFSET rows.
+ */
+public class BookmarkPageCursor {
+    private static final int MAX_BOUNDARIES = 256;
+
+    // offset of the next row -> key of the row just before it
+    private final Map<Integer, BookmarkKey> boundaries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, BookmarkKey> eldest) {
+            return size() > MAX_BOUNDARIES;
+        }
+    };
+
+    public BookmarkKey keyBefore(int offset) {
+        return offset == 0 ? null : boundaries.get(offset);
+    }
+
+    public void record(int offset, List<Bookmark> page) {
+        if (!page.isEmpty()) {
+            boundaries.put(offset + page.size(), BookmarkKey.of(page.get(page.size() - 1)));
+        }
+    }
+
+    // Must be called whenever the ordering or the filter changes
+    public void reset() {
+        boundaries.clear();
+    }
+}
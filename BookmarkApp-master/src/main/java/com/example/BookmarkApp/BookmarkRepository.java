@@ -1,23 +1,47 @@
 package com.example.BookmarkApp;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface BookmarkRepository extends JpaRepository <Bookmark, Long>{
+import jakarta.persistence.QueryHint;
+
+public interface BookmarkRepository extends JpaRepository <Bookmark, Long>, BookmarkRepositoryCustom {
 
     // Find bookmarks by username
     List<Bookmark> findByUsername(String username);
     
-    // Find public bookmarks by username
-    List<Bookmark> findByUsernameAndSecurityOption(String username, String securityOption);
+    // Server-side cursor over a user's bookmarks for export; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Bookmark b WHERE b.username = :username ORDER BY b.id")
+    Stream<Bookmark> streamByUsername(@Param("username") String username);
+    
+    // Every public bookmark with its tags in one query, for the public feed snapshot
+    @Query("SELECT DISTINCT b FROM Bookmark b LEFT JOIN FETCH b.tags WHERE b.visibility = :visibility")
+    List<Bookmark> findByVisibilityWithTags(@Param("visibility") BookmarkVisibility visibility);
     
-    // Find all public bookmarks
-    List<Bookmark> findBySecurityOption(String securityOption);
+    default List<Bookmark> findPublicFeed() {
+        return findByVisibilityWithTags(BookmarkVisibility.PUBLIC);
+    }
+    
+    // Owner-scoped single-row lookup by primary key
+    Optional<Bookmark> findByIdAndUsername(Long id, String username);
+    
+    // Find public bookmarks by username
+    List<Bookmark> findByUsernameAndVisibility(String username, BookmarkVisibility visibility);
     
-    // Find public bookmarks by username containing search term (case-insensitive)
-    @Query("SELECT b FROM Bookmark b WHERE LOWER(b.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) AND b.securityOption = 'Public'")
-    List<Bookmark> findPublicBookmarksByUsernameContaining(@Param("searchTerm") String searchTerm);
+    // Distinct categories used by a user, for the category filter; invalidated by any bookmarks write
+    // on this instance, and expires after 60s for writes made on the others
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "bookmark-categories")
+    })
+    @Query("SELECT DISTINCT b.category FROM Bookmark b WHERE b.username = :username AND b.category IS NOT NULL AND b.category <> ''")
+    List<String> findCategoriesByUsername(@Param("username") String username);
 }
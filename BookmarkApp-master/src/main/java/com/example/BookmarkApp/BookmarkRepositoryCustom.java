@@ -0,0 +1,15 @@
+package com.example.BookmarkApp;
+
+import java.util.List;
+
+public interface BookmarkRepositoryCustom {
+
+    /**
+     * Read one page of bookmarks ordered favorites first, then by id.
+     * When {@code after} is given the page starts right after that key (keyset seek)
+     * and {@code offset} is ignored; otherwise it falls back to LIMIT/OFFSET.
+     */
+    List<Bookmark> findPage(BookmarkFilter filter, BookmarkKey after, int offset, int limit);
+
+    long count(BookmarkFilter filter);
+}
@@ -0,0 +1,149 @@
+package com.example.BookmarkApp;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * Native SQL behind {@link BookmarkRepositoryCustom}. The public feed applies the
+ * plan's owner cap in a recursive CTE that walks the partial index on public owners
+ * one distinct username at a time, so a capped feed costs a handful of index probes
+ * regardless of how many public bookmarks exist.
+ * Full-text queries match the GIN-indexed search_vector column and are ranked
+ * with ts_rank_cd; they page by OFFSET since relevance has no stable seek key.
+ */
+class BookmarkRepositoryImpl implements BookmarkRepositoryCustom {
+    // Matches idx_bookmarks_username_favorite_id and the public partial index
+    private static final String GRID_ORDER = "b.favorite DESC, b.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Bookmark> findPage(BookmarkFilter filter, BookmarkKey after, int offset, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder(selectFrom(filter, "b.*", params));
+        boolean ranked = params.containsKey("tsQuery");
+        if (after != null && !ranked) {
+            // Row after (favorite, id) in "favorite DESC, id" order
+            sql.append(" AND (b.favorite < :afterFavorite OR (b.favorite = :afterFavorite AND b.id > :afterId))");
+            params.put("afterFavorite", after.favorite());
+            params.put("afterId", after.id());
+        }
+        sql.append(" ORDER BY ");
+        if (ranked) {
+            sql.append("ts_rank_cd(b.search_vector, to_tsquery('simple', :tsQuery)) DESC, ");
+        }
+        sql.append(GRID_ORDER).append(" LIMIT :limit");
+        params.put("limit", limit);
+        if ((after == null || ranked) && offset > 0) {
+            sql.append(" OFFSET :offset");
+            params.put("offset", offset);
+        }
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Bookmark.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    public long count(BookmarkFilter filter) {
+        Map<String, Object> params = new HashMap<>();
+        Query query = entityManager.createNativeQuery(selectFrom(filter, "COUNT(*)", params));
+        params.forEach(query::setParameter);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    // Builds "SELECT <columns> FROM bookmarks b ... WHERE ..." for the given filter
+    private String selectFrom(BookmarkFilter filter, String columns, Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder();
+        String ownerMatch = "";
+        if (filter.isPublicFeed() && filter.getPublicOwnerContains() != null) {
+            ownerMatch = " AND LOWER(%s.username) LIKE :ownerPattern ESCAPE '\\'";
+            params.put("ownerPattern", "%" + escapeLikeWildcards(filter.getPublicOwnerContains().toLowerCase()) + "%");
+        }
+
+        if (filter.isPublicFeed() && filter.getMaxPublicOwners() >= 0) {
+            // First maxOwners distinct public owners in username order (a loose index scan)
+            String stepMatch = ownerMatch.formatted("p");
+            sql.append("WITH RECURSIVE allowed_owners(username, n) AS (")
+               .append("(SELECT p.username, 1 FROM bookmarks p WHERE p.is_public")
+               .append(" AND p.username IS NOT NULL").append(stepMatch)
+               .append(" ORDER BY p.username LIMIT 1) UNION ALL ")
+               .append("SELECT (SELECT p.username FROM bookmarks p WHERE p.is_public")
+               .append(" AND p.username > a.username").append(stepMatch)
+               .append(" ORDER BY p.username LIMIT 1), a.n + 1")
+               .append(" FROM allowed_owners a WHERE a.username IS NOT NULL AND a.n < :maxOwners) ");
+            params.put("maxOwners", filter.getMaxPublicOwners());
+            sql.append("SELECT ").append(columns)
+               .append(" FROM bookmarks b JOIN allowed_owners o ON o.username = b.username")
+               .append(" WHERE b.is_public");
+        } else if (filter.isPublicFeed()) {
+            sql.append("SELECT ").append(columns).append(" FROM bookmarks b")
+               .append(" WHERE b.is_public").append(ownerMatch.formatted("b"));
+        } else {
+            sql.append("SELECT ").append(columns).append(" FROM bookmarks b");
+            sql.append(" WHERE b.username = :username");
+            params.put("username", filter.getUsername());
+        }
+        if (filter.isPublicFeed() && filter.getPublicOwner() != null) {
+            sql.append(" AND b.username = :publicOwner");
+            params.put("publicOwner", filter.getPublicOwner());
+        }
+
+        // Served by the pg_trgm index on LOWER(display_name)
+        if (filter.getNameContains() != null) {
+            sql.append(" AND LOWER(b.display_name) LIKE :namePattern ESCAPE '\\'");
+            params.put("namePattern", "%" + escapeLikeWildcards(filter.getNameContains().toLowerCase()) + "%");
+        }
+        if (filter.getCategory() != null) {
+            sql.append(" AND LOWER(b.category) = LOWER(:category)");
+            params.put("category", filter.getCategory());
+        }
+        // Prefix-matching full-text query; whole-name substrings still match through the trigram index
+        if (filter.getFullText() != null) {
+            String tsQuery = toPrefixTsQuery(filter.getFullText());
+            String namePattern = "%" + escapeLikeWildcards(filter.getFullText().toLowerCase()) + "%";
+            if (tsQuery.isEmpty()) {
+                sql.append(" AND LOWER(b.display_name) LIKE :textPattern ESCAPE '\\'");
+            } else {
+                sql.append(" AND (b.search_vector @@ to_tsquery('simple', :tsQuery)")
+                   .append(" OR LOWER(b.display_name) LIKE :textPattern ESCAPE '\\')");
+                params.put("tsQuery", tsQuery);
+            }
+            params.put("textPattern", namePattern);
+        }
+        // One indexed (tag, bookmark_id) probe per requested tag
+        int tagIndex = 0;
+        for (String tag : filter.getTags()) {
+            String param = "tag" + tagIndex++;
+            sql.append(" AND EXISTS (SELECT 1 FROM bookmark_tags t WHERE t.bookmark_id = b.id AND t.tag = :")
+               .append(param).append(")");
+            params.put(param, tag);
+        }
+        return sql.toString();
+    }
+
+    // "spring boot" -> "spring:* & boot:*"; only letters and digits survive, so the result is always valid tsquery syntax
+    static String toPrefixTsQuery(String text) {
+        StringJoiner query = new StringJoiner(" & ");
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                query.add(token + ":*");
+            }
+        }
+        return query.toString();
+    }
+
+    static String escapeLikeWildcards(String term) {
+        return term.replace("\\", "\\\\")
+                   .replace("%", "\\%")
+                   .replace("_", "\\_");
+    }
+}
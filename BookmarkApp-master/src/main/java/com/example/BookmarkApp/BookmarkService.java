@@ -1,10 +1,22 @@
 package com.example.BookmarkApp;
 
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.vaadin.flow.server.VaadinSession;
 
@@ -16,109 +28,208 @@ public class BookmarkService {
     @Autowired
     private OauthService oauthService;
     
+    @Autowired
+    private TaskExecutor taskExecutor;
+    
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+    
+    private TransactionTemplate readOnlyTransaction;
+    
+    // Public feed snapshot, shared by all users. Older than this it is still served,
+    // but a background reload is started (stale-while-revalidate).
+    private static final long PUBLIC_FEED_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private final AtomicReference<PublicFeedSnapshot> publicFeed = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<PublicFeedSnapshot>> publicFeedLoad = new AtomicReference<>();
+    private final AtomicLong publicFeedChanges = new AtomicLong();
+    
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
     public void addBookmark(Bookmark bookmark) {
-        bookmarkRepository.save(bookmark);
+        bookmark.setTags(parseTags(bookmark.getTagsInput()));
+        Bookmark saved = bookmarkRepository.save(bookmark);
+        readYourWrites.recordWrite(saved.getUsername());
+        // Adds, edits and visibility flips are applied to the snapshot in place of a reload
+        publicFeedChanges.incrementAndGet();
+        PublicFeedSnapshot snapshot = publicFeed.get();
+        if (snapshot != null) {
+            snapshot.apply(saved);
+        }
     }
     
+    // A bookmark by id, only if it belongs to the current user.
+    // Read-only methods go to the replica when one is configured, see ReplicaRoutingDataSource
+    @Transactional(readOnly = true)
+    public Optional<Bookmark> getOwnedBookmark(Long id) {
+        String username = getCurrentUsername();
+        if (username == null || id == null) {
+            return Optional.empty();
+        }
+        return bookmarkRepository.findByIdAndUsername(id, username);
+    }
+    
+    // Update one of the current user's bookmarks; false if it does not exist or is not theirs
+    public boolean updateBookmark(Long id, String displayName, String url, String tagsInput) {
+        Optional<Bookmark> bookmark = getOwnedBookmark(id);
+        bookmark.ifPresent(b -> {
+            b.setDisplayName(displayName);
+            b.setUrl(url);
+            b.setTagsInput(tagsInput);
+            addBookmark(b);
+        });
+        return bookmark.isPresent();
+    }
+    
+    // Delete one of the current user's bookmarks; false if it does not exist or is not theirs
+    public boolean deleteBookmark(Long id) {
+        Optional<Bookmark> bookmark = getOwnedBookmark(id);
+        bookmark.ifPresent(b -> {
+            bookmarkRepository.delete(b);
+            readYourWrites.recordWrite(b.getUsername());
+            publicFeedChanges.incrementAndGet();
+            PublicFeedSnapshot snapshot = publicFeed.get();
+            if (snapshot != null) {
+                snapshot.remove(b.getId());
+            }
+        });
+        return bookmark.isPresent();
+    }
+    
+    @Transactional(readOnly = true)
     public List<Bookmark> getAllBookmarks() {
         return bookmarkRepository.findAll();
     }
     
     // Get bookmarks for a specific user
+    @Transactional(readOnly = true)
     public List<Bookmark> getBookmarksByUsername(String username) {
         return bookmarkRepository.findByUsername(username);
     }
     
-    // Get public bookmarks for a specific user - requires Pro/Ultra access
-    public List<Bookmark> getPublicBookmarksByUsername(String username) {
-        String currentUser = getCurrentUsername();
-        if (currentUser == null) {
+    // Get public bookmarks for a specific user - requires Pro/Ultra access.
+    // Empty when that user falls outside the viewer's plan cap.
+    public List<Bookmark> getPublicBookmarksByUsername(String username, int offset, int limit) {
+        if (getCurrentUsername() == null) {
             return Collections.emptyList();
         }
-        
-        String plan = oauthService.getPlanForUser(currentUser);
-        int maxUsers = getMaxUsersForPlan(plan);
-        
-        // If unlimited (Ultra plan), allow access
-        if (maxUsers == -1) {
-            return bookmarkRepository.findByUsernameAndSecurityOption(username, "Public");
-        }
-        
-        // Check if this user is within the allowed limit
-        List<String> allowedUsers = bookmarkRepository.findBySecurityOption("Public").stream()
-            .map(Bookmark::getUsername)
-            .distinct()
-            .limit(maxUsers)
-            .toList();
-            
-        if (!allowedUsers.contains(username)) {
-            return Collections.emptyList(); // User not in allowed list
-        }
-        
-        return bookmarkRepository.findByUsernameAndSecurityOption(username, "Public");
-    }
-    
-    // Search for users' public bookmarks by username pattern - requires Pro/Ultra access
-    public List<Bookmark> searchPublicBookmarksByUsername(String searchTerm) {
-        String currentUser = getCurrentUsername();
-        if (currentUser == null) {
+        return getBookmarksPage(getGridFilter(true).withPublicOwner(username), null, offset, limit);
+    }
+    
+    // Search for users' public bookmarks by username pattern - requires Pro/Ultra access.
+    // The plan cap applies to the distinct matching users.
+    public List<Bookmark> searchPublicBookmarksByUsername(String searchTerm, int offset, int limit) {
+        if (getCurrentUsername() == null) {
             return Collections.emptyList();
         }
-        
-        String plan = oauthService.getPlanForUser(currentUser);
-        int maxUsers = getMaxUsersForPlan(plan);
-        
-        String escaped = escapeLikeWildcards(searchTerm);
-        String pattern = "%" + escaped.toLowerCase() + "%"; // case-insensitive handled by query LOWER
-        List<Bookmark> searchResults = bookmarkRepository.findPublicBookmarksByUsernameContaining(pattern);
-        
-        // If unlimited (Ultra plan), return all results
-        if (maxUsers == -1) {
-            return searchResults;
-        }
-        
-        // Apply user viewing limits
-        List<String> limitedUsers = searchResults.stream()
-            .map(Bookmark::getUsername)
-            .distinct()
-            .limit(maxUsers)
-            .toList();
-            
-        return searchResults.stream()
-            .filter(bookmark -> limitedUsers.contains(bookmark.getUsername()))
-            .toList();
+        return getBookmarksPage(getGridFilter(true).withPublicOwnerContaining(searchTerm), null, offset, limit);
     }
     
     // Get all public bookmarks - requires Pro/Ultra access
-    public List<Bookmark> getAllPublicBookmarks() {
+    public List<Bookmark> getAllPublicBookmarks(int offset, int limit) {
+        if (getCurrentUsername() == null) {
+            return Collections.emptyList();
+        }
+        return getBookmarksPage(getGridFilter(true), null, offset, limit);
+    }
+    
+    // Filter for the grid: the user's own bookmarks, or the public feed limited by the viewer's plan
+    public BookmarkFilter getGridFilter(boolean publicFeed) {
         String username = getCurrentUsername();
-        if (username == null) {
+        if (!publicFeed) {
+            return BookmarkFilter.ownedBy(username);
+        }
+        return BookmarkFilter.publicFeed(maxUsersForPlan(oauthService.getPlanForUser(username)));
+    }
+    
+    // Search filter for the grid - ranked full-text search, category, tags and owner/visibility
+    // all go to the database as one query
+    public BookmarkFilter getGridFilter(boolean publicFeed, String searchText, String category, String tagsInput) {
+        return getGridFilter(publicFeed)
+                .withFullText(searchText)
+                .withCategory(category)
+                .withTags(parseTags(tagsInput));
+    }
+    
+    // One page of bookmarks for the grid, favorites first then by id.
+    // Public feed pages come from the shared snapshot when it can serve them, see PublicFeedSnapshot.
+    // Not @Transactional: a snapshot read needs no connection, and a request waiting for the
+    // first snapshot load must not hold one the loader needs. Misses get their own read-only transaction.
+    public List<Bookmark> getBookmarksPage(BookmarkFilter filter, BookmarkKey after, int offset, int limit) {
+        if (filter.isPublicFeed() ? getCurrentUsername() == null : filter.getUsername() == null) {
             return Collections.emptyList();
         }
-        
-        String plan = oauthService.getPlanForUser(username);
-        List<Bookmark> allPublicBookmarks = bookmarkRepository.findBySecurityOption("Public");
-        
-        // Apply user viewing limits based on plan
-        int maxUsers = getMaxUsersForPlan(plan);
-        if (maxUsers == -1) {
-            return allPublicBookmarks; // Unlimited for Ultra
-        }
-        
-        // Get distinct users and limit them
-        List<String> limitedUsers = allPublicBookmarks.stream()
-            .map(Bookmark::getUsername)
-            .distinct()
-            .limit(maxUsers)
-            .toList();
-            
-        // Return bookmarks only from allowed users
-        return allPublicBookmarks.stream()
-            .filter(bookmark -> limitedUsers.contains(bookmark.getUsername()))
-            .toList();
-    }
-    
-    private int getMaxUsersForPlan(String plan) {
+        PublicFeedSnapshot snapshot = PublicFeedSnapshot.supports(filter) ? getPublicFeedSnapshot() : null;
+        if (snapshot != null) {
+            return snapshot.page(filter, after, offset, limit);
+        }
+        return readOnlyTransaction.execute(status -> bookmarkRepository.findPage(filter, after, offset, limit));
+    }
+    
+    public long countBookmarks(BookmarkFilter filter) {
+        if (filter.isPublicFeed() ? getCurrentUsername() == null : filter.getUsername() == null) {
+            return 0;
+        }
+        PublicFeedSnapshot snapshot = PublicFeedSnapshot.supports(filter) ? getPublicFeedSnapshot() : null;
+        if (snapshot != null) {
+            return snapshot.count(filter);
+        }
+        return readOnlyTransaction.execute(status -> bookmarkRepository.count(filter));
+    }
+    
+    // Current snapshot; null only if the first load failed, in which case callers query the database
+    private PublicFeedSnapshot getPublicFeedSnapshot() {
+        PublicFeedSnapshot snapshot = publicFeed.get();
+        if (snapshot == null) {
+            try {
+                return loadPublicFeed().join();
+            } catch (CompletionException e) {
+                System.out.println("Public feed load failed: " + e.getCause());
+                return null;
+            }
+        }
+        if (snapshot.isOlderThan(PUBLIC_FEED_MAX_AGE_NANOS)) {
+            loadPublicFeed();
+        }
+        return snapshot;
+    }
+    
+    // Single-flight: concurrent callers share the one load already in progress
+    private CompletableFuture<PublicFeedSnapshot> loadPublicFeed() {
+        CompletableFuture<PublicFeedSnapshot> load = new CompletableFuture<>();
+        CompletableFuture<PublicFeedSnapshot> inFlight = publicFeedLoad.compareAndExchange(null, load);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                long changesBefore = publicFeedChanges.get();
+                PublicFeedSnapshot loaded = PublicFeedSnapshot.of(bookmarkRepository.findPublicFeed());
+                publicFeed.set(loaded);
+                // A change that raced with the query may be missing; serve it, but revalidate on the next read
+                if (publicFeedChanges.get() != changesBefore) {
+                    loaded.markStale();
+                }
+                publicFeedLoad.set(null);
+                load.complete(loaded);
+            } catch (RuntimeException e) {
+                publicFeedLoad.set(null);
+                load.completeExceptionally(e);
+            }
+        });
+        return load;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<String> getCategoriesByUsername(String username) {
+        return bookmarkRepository.findCategoriesByUsername(username);
+    }
+    
+    // Public owner cap for a plan (-1 = unlimited)
+    static int maxUsersForPlan(String plan) {
         return switch (plan) {
             case "Free" -> 5;
             case "Pro" -> 15;
@@ -135,12 +246,18 @@ public class BookmarkService {
         }
     }
     
-    // Escape % and _ for LIKE queries
-    private String escapeLikeWildcards(String term) {
-        if (term == null) return "";
-        return term.replace("%", "\\%")
-                   .replace("_", "\\_");
+    // Split comma separated tags into trimmed, lower-case, de-duplicated values
+    public static Set<String> parseTags(String tagsInput) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (tagsInput == null) {
+            return tags;
+        }
+        for (String part : tagsInput.split(",")) {
+            String tag = part.trim().toLowerCase();
+            if (!tag.isEmpty()) {
+                tags.add(tag.length() > 100 ? tag.substring(0, 100) : tag);
+            }
+        }
+        return tags;
     }
 }
-
-
@@ -0,0 +1,26 @@
+package com.example.BookmarkApp;
+
+/**
+ * Who can see a bookmark. Stored as the boolean is_public column (see
+ * {@link BookmarkVisibilityConverter}); the labels are the strings the UI and
+ * the older String-based API use.
+ */
+public enum BookmarkVisibility {
+    PUBLIC("Public"),
+    PRIVATE("Private");
+
+    private final String label;
+
+    BookmarkVisibility(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // Anything but "Public" is private, as before
+    public static BookmarkVisibility fromLabel(String label) {
+        return PUBLIC.label.equals(label) ? PUBLIC : PRIVATE;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.BookmarkApp;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// BookmarkVisibility <-> the one-byte is_public column
+@Converter
+public class BookmarkVisibilityConverter implements AttributeConverter<BookmarkVisibility, Boolean> {
+
+    @Override
+    public Boolean convertToDatabaseColumn(BookmarkVisibility visibility) {
+        return visibility == BookmarkVisibility.PUBLIC;
+    }
+
+    @Override
+    public BookmarkVisibility convertToEntityAttribute(Boolean isPublic) {
+        return Boolean.TRUE.equals(isPublic) ? BookmarkVisibility.PUBLIC : BookmarkVisibility.PRIVATE;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.BookmarkApp;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Creates Stripe checkout sessions off the UI thread. Calls run on a small bounded pool
+ * (a bulkhead: a slow payment API can tie up these threads, never request threads or
+ * Vaadin session locks), each limited to call-timeout on top of the SDK's own
+ * connect/read timeouts.
+ *
+ * Timeouts, connection errors, 5xx and rate limiting count as failures for the circuit
+ * breaker. While it is open, checkout goes straight to the static payment link instead
+ * of waiting on a call that is likely to fail. A single failure while closed is reported
+ * as such, so the user can retry.
+ */
+@Service
+public class CheckoutSessionService {
+
+    /** Where to send the user: a checkout session, or the payment link (fallback = true). */
+    public record CheckoutRedirect(String url, boolean fallback) {
+    }
+
+    private final StripeService stripeService;
+    private final ThreadPoolExecutor executor;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration callTimeout;
+
+    public CheckoutSessionService(StripeService stripeService,
+                                  @Value("${app.checkout.threads:4}") int threads,
+                                  @Value("${app.checkout.queue-capacity:32}") int queueCapacity,
+                                  @Value("${app.checkout.call-timeout:8s}") Duration callTimeout,
+                                  @Value("${app.checkout.breaker.failure-threshold:3}") int failureThreshold,
+                                  @Value("${app.checkout.breaker.open-duration:30s}") Duration openDuration) {
+        this.stripeService = stripeService;
+        this.callTimeout = callTimeout;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "stripe-checkout-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Start a checkout for planName. Completes with the session URL, with the payment link
+     * when the breaker is open or the pool is full, or exceptionally when the call failed
+     * or timed out.
+     */
+    public CompletableFuture<CheckoutRedirect> startCheckout(String planName, String customerEmail,
+                                                             String baseUrl, String username) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.completedFuture(new CheckoutRedirect(stripeService.getPaymentLink(planName), true));
+        }
+        CompletableFuture<String> call;
+        try {
+            call = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return stripeService.createCheckoutSession(planName, customerEmail, baseUrl, username);
+                } catch (StripeException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.release();
+            return CompletableFuture.completedFuture(new CheckoutRedirect(stripeService.getPaymentLink(planName), true));
+        }
+        return call.orTimeout(callTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((url, error) -> {
+                    if (error == null || !isUnavailable(error)) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        circuitBreaker.onFailure();
+                    }
+                })
+                .thenApply(url -> new CheckoutRedirect(url, false));
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    // Failures that say the payment API is unhealthy, as opposed to a bad request
+    private static boolean isUnavailable(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof TimeoutException
+                || cause instanceof ApiConnectionException
+                || cause instanceof ApiException
+                || cause instanceof RateLimitException;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,8 +1,5 @@
 package com.example.BookmarkApp;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.vaadin.flow.component.UI;
@@ -17,6 +14,9 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.BeforeEvent;
+import com.vaadin.flow.router.HasUrlParameter;
+import com.vaadin.flow.router.OptionalParameter;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.spring.annotation.SpringComponent;
 import com.vaadin.flow.spring.annotation.UIScope;
@@ -24,14 +24,18 @@ import com.vaadin.flow.spring.annotation.UIScope;
 @Route("Edit-Bookmark-Screen")
 @SpringComponent
 @UIScope
-public class EditBookmarkScreen extends VerticalLayout {
+public class EditBookmarkScreen extends VerticalLayout implements HasUrlParameter<Long> {
     @Autowired
     private BookmarkService bookmarkService;
     @Autowired
-    private BookmarkRepository bookmarkRepository;
-    @Autowired
     private MainScreen mainScreen;
     
+    private final Span selectedBookmarkLabel = new Span();
+    private final TextField nameField = new TextField();
+    private final TextField urlField = new TextField();
+    private final TextField tagsField = new TextField();
+    private Long bookmarkId;
+    
     public EditBookmarkScreen() {
         // Enhanced gradient background
         UI.getCurrent().getElement().executeJs(
@@ -80,31 +84,26 @@ public class EditBookmarkScreen extends VerticalLayout {
             .set("display", "block")
             .set("font-weight", "400");
 
-        // Edit section
+        // Edit section - the bookmark is picked from the grid's Actions column and arrives as the route parameter
         VerticalLayout editSection = createSection("📝 Edit Bookmark", "#667eea");
         
-        TextField editSearchField = new TextField();
-        editSearchField.setLabel("Search Bookmark to Edit");
-        editSearchField.setPlaceholder("Enter bookmark name or tag");
-        editSearchField.setPrefixComponent(VaadinIcon.SEARCH.create());
-        editSearchField.setClearButtonVisible(true);
-        styleFormField(editSearchField);
+        selectedBookmarkLabel.getStyle()
+            .set("color", "#374151")
+            .set("font-weight", "600")
+            .set("margin-bottom", "16px");
 
-        TextField nameField = new TextField();
         nameField.setLabel("Bookmark Name");
         nameField.setPlaceholder("Update bookmark name");
         nameField.setPrefixComponent(VaadinIcon.TEXT_LABEL.create());
         nameField.setClearButtonVisible(true);
         styleFormField(nameField);
 
-        TextField urlField = new TextField();
         urlField.setLabel("Bookmark URL");
         urlField.setPlaceholder("Update bookmark URL");
         urlField.setPrefixComponent(VaadinIcon.GLOBE.create());
         urlField.setClearButtonVisible(true);
         styleFormField(urlField);
 
-        TextField tagsField = new TextField();
         tagsField.setLabel("Tags");
         tagsField.setPlaceholder("Update tags (comma separated)");
         tagsField.setPrefixComponent(VaadinIcon.TAG.create());
@@ -116,102 +115,45 @@ public class EditBookmarkScreen extends VerticalLayout {
         styleActionButton(saveButton, "#059669", "0 8px 25px rgba(5, 150, 105, 0.4)");
 
         saveButton.addClickListener(event -> {
-            String searchInput = editSearchField.getValue();
-            if (searchInput == null || searchInput.trim().isEmpty()) {
-                Notification.show("Please search for a bookmark to edit", 3000, Notification.Position.MIDDLE);
+            if (bookmarkId == null) {
+                Notification.show("Please pick a bookmark to edit from your bookmark list", 3000, Notification.Position.MIDDLE);
                 return;
             }
             
-            List<Bookmark> allBookmarks = bookmarkService.getAllBookmarks();
-            List<Bookmark> exactMatches = allBookmarks.stream()
-                .filter(b -> b.getDisplayName() != null && b.getDisplayName().equalsIgnoreCase(searchInput.trim()))
-                .collect(Collectors.toList());
-            
-            List<Bookmark> bookmarks;
-            if (!exactMatches.isEmpty()) {
-                bookmarks = exactMatches;
-            } else {
-                bookmarks = allBookmarks.stream()
-                    .filter(b -> (b.getDisplayName() != null && b.getDisplayName().toLowerCase().contains(searchInput.toLowerCase())) ||
-                            (b.getTagsInput() != null && b.getTagsInput().toLowerCase().contains(searchInput.toLowerCase())))
-                    .collect(Collectors.toList());
-            }
-            
-            if (bookmarks.isEmpty()) {
-                Notification.show("No bookmarks found with name or tag: " + searchInput, 3000, Notification.Position.MIDDLE);
+            if (!bookmarkService.updateBookmark(bookmarkId, nameField.getValue(), urlField.getValue(), tagsField.getValue())) {
+                Notification.show("Bookmark not found", 3000, Notification.Position.MIDDLE);
                 return;
             }
-            if (bookmarks.size() > 1) {
-                Notification.show("Multiple bookmarks found. Please refine your search (try the exact bookmark name).", 3000, Notification.Position.MIDDLE);
-                return;
-            }
-            
-            Bookmark bookmarkToEdit = bookmarks.get(0);
-            bookmarkToEdit.setDisplayName(nameField.getValue());
-            bookmarkToEdit.setUrl(urlField.getValue());
-            bookmarkToEdit.setTagsInput(tagsField.getValue());
-            
-            bookmarkRepository.save(bookmarkToEdit);
             mainScreen.refreshGrid();
             Notification.show("Bookmark updated successfully", 3000, Notification.Position.MIDDLE);
             UI.getCurrent().navigate("mainscreen");
         });
 
-        editSection.add(editSearchField, nameField, urlField, tagsField, saveButton);
+        editSection.add(selectedBookmarkLabel, nameField, urlField, tagsField, saveButton);
 
         // Delete section
         VerticalLayout deleteSection = createSection("🗑️ Delete Bookmark", "#dc2626");
-        
-        TextField deleteField = new TextField();
-        deleteField.setLabel("Search Bookmark to Delete");
-        deleteField.setPlaceholder("Enter bookmark name or tag");
-        deleteField.setPrefixComponent(VaadinIcon.SEARCH.create());
-        deleteField.setClearButtonVisible(true);
-        styleFormField(deleteField);
 
         Button deleteBookmarkButton = new Button("Delete Bookmark", VaadinIcon.TRASH.create());
         deleteBookmarkButton.addThemeVariants(ButtonVariant.LUMO_ERROR, ButtonVariant.LUMO_LARGE);
         styleActionButton(deleteBookmarkButton, "#dc2626", "0 8px 25px rgba(220, 38, 38, 0.4)");
 
         deleteBookmarkButton.addClickListener(event -> {
-            String searchInput = deleteField.getValue();
-            if (searchInput == null || searchInput.trim().isEmpty()) {
-                Notification.show("Please enter a bookmark name or tag", 3000, Notification.Position.MIDDLE);
+            if (bookmarkId == null) {
+                Notification.show("Please pick a bookmark to delete from your bookmark list", 3000, Notification.Position.MIDDLE);
                 return;
             }
             
-            List<Bookmark> allBookmarks = bookmarkService.getAllBookmarks();
-            List<Bookmark> exactMatches = allBookmarks.stream()
-                .filter(b -> b.getDisplayName() != null && b.getDisplayName().equalsIgnoreCase(searchInput.trim()))
-                .collect(Collectors.toList());
-            
-            List<Bookmark> bookmarks;
-            if (!exactMatches.isEmpty()) {
-                bookmarks = exactMatches;
-            } else {
-                bookmarks = allBookmarks.stream()
-                    .filter(b -> (b.getDisplayName() != null && b.getDisplayName().toLowerCase().contains(searchInput.toLowerCase())) ||
-                            (b.getTagsInput() != null && b.getTagsInput().toLowerCase().contains(searchInput.toLowerCase())))
-                    .collect(Collectors.toList());
-            }
-            
-            if (bookmarks.isEmpty()) {
-                Notification.show("No bookmarks found with name or tag: " + searchInput, 3000, Notification.Position.MIDDLE);
+            if (!bookmarkService.deleteBookmark(bookmarkId)) {
+                Notification.show("Bookmark not found", 3000, Notification.Position.MIDDLE);
                 return;
             }
-            if (bookmarks.size() > 1) {
-                Notification.show("Multiple bookmarks found. Please refine your search (try the exact bookmark name).", 3000, Notification.Position.MIDDLE);
-                return;
-            }
-            
-            Bookmark bookmarkToDelete = bookmarks.get(0);
-            bookmarkRepository.deleteById(bookmarkToDelete.getId());
             mainScreen.refreshGrid();
             Notification.show("Bookmark deleted successfully", 3000, Notification.Position.MIDDLE);
             UI.getCurrent().navigate("mainscreen");
         });
 
-        deleteSection.add(deleteField, deleteBookmarkButton);
+        deleteSection.add(deleteBookmarkButton);
 
         // Back button
         Button backButton = new Button("Back to Bookmarks", VaadinIcon.ARROW_LEFT.create());
@@ -236,6 +178,25 @@ public class EditBookmarkScreen extends VerticalLayout {
         add(editIcon, titleText, subtitle, editSection, deleteSection, backButton);
     }
 
+    // Called on every navigation to Edit-Bookmark-Screen/{id}; loads only that bookmark, scoped to its owner
+    @Override
+    public void setParameter(BeforeEvent event, @OptionalParameter Long id) {
+        Bookmark bookmark = id == null ? null : bookmarkService.getOwnedBookmark(id).orElse(null);
+        if (bookmark == null) {
+            bookmarkId = null;
+            selectedBookmarkLabel.setText("Pick a bookmark from your bookmark list to edit or delete it");
+            nameField.clear();
+            urlField.clear();
+            tagsField.clear();
+            return;
+        }
+        bookmarkId = bookmark.getId();
+        selectedBookmarkLabel.setText("Editing: " + bookmark.getDisplayName());
+        nameField.setValue(bookmark.getDisplayName() != null ? bookmark.getDisplayName() : "");
+        urlField.setValue(bookmark.getUrl() != null ? bookmark.getUrl() : "");
+        tagsField.setValue(bookmark.getTagsInput() != null ? bookmark.getTagsInput() : "");
+    }
+
     private VerticalLayout createSection(String title, String accentColor) {
         VerticalLayout section = new VerticalLayout();
         section.setPadding(true);
@@ -0,0 +1,149 @@
+package com.example.BookmarkApp;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.html.H1;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.component.upload.receivers.FileBuffer;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import com.vaadin.flow.spring.annotation.UIScope;
+
+@Route("Import-Bookmarks-Screen")
+@SpringComponent
+@UIScope
+public class ImportBookmarksScreen extends VerticalLayout {
+    private static final int MAX_FILE_SIZE = 50 * 1024 * 1024;
+
+    private final BookmarkImportService importService;
+    private final MainScreen mainScreen;
+    private final ProgressBar progressBar = new ProgressBar();
+    private final Span status = new Span();
+
+    @Autowired
+    public ImportBookmarksScreen(BookmarkImportService importService, MainScreen mainScreen) {
+        this.importService = importService;
+        this.mainScreen = mainScreen;
+
+        // Enhanced gradient background
+        UI.getCurrent().getElement().executeJs(
+            "document.body.style.background = 'linear-gradient(135deg, #667eea 0%, #764ba2 100%)';" +
+            "document.body.style.minHeight = '100vh';"
+        );
+
+        // Enhanced card styling with glassmorphism
+        getStyle()
+            .set("background", "linear-gradient(145deg, rgba(255,255,255,0.95) 0%, rgba(255,255,255,0.85) 100%)")
+            .set("border-radius", "24px")
+            .set("box-shadow", "0 20px 60px rgba(0,0,0,0.15), 0 8px 25px rgba(0,0,0,0.1)")
+            .set("padding", "48px 40px")
+            .set("margin", "40px auto")
+            .set("max-width", "680px")
+            .set("font-family", "'Inter', -apple-system, BlinkMacSystemFont, 'Segoe UI', sans-serif")
+            .set("border", "1px solid rgba(255,255,255,0.3)")
+            .set("backdrop-filter", "blur(20px)");
+
+        setAlignItems(Alignment.CENTER);
+
+        // Header with icon
+        Icon importIcon = VaadinIcon.UPLOAD.create();
+        importIcon.setSize("56px");
+        importIcon.getStyle()
+            .set("color", "#667eea")
+            .set("margin-bottom", "16px");
+
+        H1 title = new H1("📥 Import Bookmarks");
+        title.getStyle()
+            .set("font-family", "'Inter', -apple-system, BlinkMacSystemFont, 'Segoe UI', sans-serif")
+            .set("font-size", "36px")
+            .set("font-weight", "800")
+            .set("margin", "0 0 8px 0")
+            .set("color", "#1a202c")
+            .set("text-align", "center")
+            .set("letter-spacing", "-0.5px");
+
+        Span subtitle = new Span("Upload a bookmark export from your browser (HTML or JSON)");
+        subtitle.getStyle()
+            .set("color", "#64748b")
+            .set("font-size", "16px")
+            .set("text-align", "center")
+            .set("margin-bottom", "32px")
+            .set("display", "block")
+            .set("font-weight", "400");
+
+        // Uploads are buffered to a temp file, never held in memory
+        FileBuffer buffer = new FileBuffer();
+        Upload upload = new Upload(buffer);
+        upload.setAcceptedFileTypes(".html", ".htm", ".json");
+        upload.setMaxFileSize(MAX_FILE_SIZE);
+        upload.setMaxFiles(1);
+        upload.setWidthFull();
+        upload.addSucceededListener(event -> startImport(event.getFileName(), buffer));
+        upload.addFileRejectedListener(event ->
+            Notification.show(event.getErrorMessage(), 3000, Notification.Position.MIDDLE));
+
+        progressBar.setVisible(false);
+        progressBar.setWidthFull();
+        status.getStyle()
+            .set("color", "#374151")
+            .set("font-weight", "600");
+
+        // Back button
+        Button backButton = new Button("Back to Bookmarks", VaadinIcon.ARROW_LEFT.create());
+        backButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        backButton.getStyle()
+            .set("color", "#667eea")
+            .set("font-weight", "600")
+            .set("margin-top", "16px")
+            .set("transition", "all 0.3s ease");
+        backButton.addClickListener(e -> UI.getCurrent().navigate("mainscreen"));
+
+        add(importIcon, title, subtitle, upload, progressBar, status, backButton);
+    }
+
+    // The import runs on a background thread; progress reaches the browser through push
+    private void startImport(String fileName, FileBuffer buffer) {
+        String username = (String) VaadinSession.getCurrent().getAttribute("username");
+        if (username == null) {
+            UI.getCurrent().navigate("");
+            return;
+        }
+
+        UI ui = UI.getCurrent();
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+        status.setText("Importing " + fileName + "...");
+        try {
+            importService.startImport(username, fileName, buffer.getFileData().getFile().toPath(),
+                job -> ui.access(() -> showProgress(job)));
+        } catch (IOException e) {
+            progressBar.setVisible(false);
+            status.setText("Could not read " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    private void showProgress(BookmarkImportJob job) {
+        progressBar.setValue(job.getProgress());
+        switch (job.getState()) {
+            case RUNNING -> status.setText("Imported " + job.getImported() + " bookmarks so far...");
+            case DONE -> {
+                status.setText("Imported " + job.getImported() + " bookmarks"
+                        + (job.getSkipped() > 0 ? " (" + job.getSkipped() + " skipped)" : ""));
+                mainScreen.refreshGrid();
+            }
+            case FAILED -> status.setText("Import failed after " + job.getImported() + " bookmarks: " + job.getError());
+        }
+    }
+}
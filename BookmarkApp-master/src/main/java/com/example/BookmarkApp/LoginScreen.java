@@ -1,5 +1,8 @@
 package com.example.BookmarkApp;
 
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
@@ -119,7 +122,8 @@ public class LoginScreen extends VerticalLayout {
                 .set("box-shadow", "0 8px 25px rgba(102, 126, 234, 0.4)")
         );
 
-        loginButton.addClickListener(e -> handleLogin(usernameField.getValue(), passwordField.getValue()));
+        loginButton.setDisableOnClick(true);
+        loginButton.addClickListener(e -> handleLogin(e.getSource(), usernameField.getValue(), passwordField.getValue()));
 
         // Divider
         HorizontalLayout divider = new HorizontalLayout();
@@ -219,14 +223,25 @@ public class LoginScreen extends VerticalLayout {
         """);
     }
 
-    private void handleLogin(String username, String password) {
-        boolean authenticated = oauthService.authenticate(username, password);
-        if (authenticated) {
-            VaadinSession.getCurrent().setAttribute("username", username);
-            Notification.show("Welcome " + username + "!");
-            UI.getCurrent().navigate("mainscreen");
-        } else {
-            Notification.show("Invalid credentials", 4000, Notification.Position.MIDDLE);
-        }
+    // The password check runs on the verification pool; the result comes back through push
+    private void handleLogin(Button loginButton, String username, String password) {
+        UI ui = UI.getCurrent();
+        String clientAddress = VaadinSession.getCurrent().getBrowser().getAddress();
+        oauthService.authenticateAsync(username, password, clientAddress).whenComplete((authenticated, error) ->
+            ui.access(() -> {
+                loginButton.setEnabled(true);
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    Notification.show(cause instanceof RejectedExecutionException
+                            ? "Too many login attempts right now, please try again in a moment"
+                            : "Login failed, please try again", 4000, Notification.Position.MIDDLE);
+                } else if (authenticated) {
+                    VaadinSession.getCurrent().setAttribute("username", username);
+                    Notification.show("Welcome " + username + "!");
+                    ui.navigate("mainscreen");
+                } else {
+                    Notification.show("Invalid credentials", 4000, Notification.Position.MIDDLE);
+                }
+            }));
     }
 }
@@ -2,7 +2,6 @@ package com.example.BookmarkApp;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -25,10 +24,12 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.Tabs;
 import com.vaadin.flow.component.textfield.TextField;
-import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.spring.annotation.SpringComponent;
 import com.vaadin.flow.spring.annotation.UIScope;
 
@@ -37,9 +38,14 @@ import com.vaadin.flow.spring.annotation.UIScope;
 @UIScope
 public class MainScreen extends VerticalLayout {
     private final BookmarkService bookmarkService;
+    private final BookmarkExportService bookmarkExportService;
     private final OauthService oauthService;
+    private final PlanChangeBroadcaster planChangeBroadcaster;
+    private Registration planChangeRegistration;
     private final Grid<Bookmark> grid;
-    private final ListDataProvider<Bookmark> dataProvider;
+    private final CallbackDataProvider<Bookmark, Void> dataProvider;
+    private final BookmarkPageCursor pageCursor = new BookmarkPageCursor();
+    private BookmarkFilter gridFilter;
     private ComboBox<String> categoryFilter;
     private MenuBar userMenu;
     private MenuItem rootMenuItem;
@@ -56,14 +62,21 @@ public class MainScreen extends VerticalLayout {
     private Tab yourBookmarksTab;
     private Tab publicBookmarksTab;
     private boolean showingPublicBookmarks = false;
+    private String activeTagsFilter;
     
     @Autowired
-    public MainScreen(BookmarkService bookmarkService, OauthService oauthService) {
+    public MainScreen(BookmarkService bookmarkService, BookmarkExportService bookmarkExportService,
+                      OauthService oauthService, PlanChangeBroadcaster planChangeBroadcaster) {
         // Initialize fields first
         this.bookmarkService = bookmarkService;
+        this.bookmarkExportService = bookmarkExportService;
         this.oauthService = oauthService;
+        this.planChangeBroadcaster = planChangeBroadcaster;
         this.grid = new Grid<>(Bookmark.class, false);
-        this.dataProvider = new ListDataProvider<>(new ArrayList<>());
+        this.dataProvider = new CallbackDataProvider<>(
+            query -> fetchBookmarks(query.getOffset(), query.getLimit()).stream(),
+            query -> countBookmarks(),
+            Bookmark::getId);
         
         // Session validation - ensure user is authenticated
         String sessionUsername = (String) VaadinSession.getCurrent().getAttribute("username");
@@ -90,7 +103,7 @@ public class MainScreen extends VerticalLayout {
             .set("border", "1px solid rgba(255,255,255,0.3)")
             .set("backdrop-filter", "blur(20px)");
 
-        grid.setDataProvider(dataProvider);
+        grid.setItems(dataProvider);
 
         setupStaticUI();
         setupDynamicSearchBar();
@@ -121,21 +134,21 @@ public class MainScreen extends VerticalLayout {
             
             // Only allow privacy changes for own bookmarks
             if (!isOwnBookmark) {
-                Icon readOnlyIcon = "Public".equals(bookmark.getSecurityOption())
+                Icon readOnlyIcon = bookmark.isPublic()
                         ? VaadinIcon.EYE.create()
                         : VaadinIcon.EYE_SLASH.create();
                 readOnlyIcon.setColor("#9ca3af"); // Gray color for read-only
                 return readOnlyIcon;
             }
             
-            Icon icon = "Public".equals(bookmark.getSecurityOption())
+            Icon icon = bookmark.isPublic()
                     ? VaadinIcon.EYE.create()
                     : VaadinIcon.EYE_SLASH.create();
             icon.setColor("#667eea");
             Button button = new Button(icon, click -> {
-                bookmark.setSecurityOption("Public".equals(bookmark.getSecurityOption()) ? "Private" : "Public");
+                bookmark.setVisibility(bookmark.isPublic() ? BookmarkVisibility.PRIVATE : BookmarkVisibility.PUBLIC);
                 bookmarkService.addBookmark(bookmark);
-                dataProvider.refreshItem(bookmark);
+                grid.getDataProvider().refreshItem(bookmark);
             });
             button.addThemeVariants(ButtonVariant.LUMO_TERTIARY_INLINE);
             return button;
@@ -179,7 +192,7 @@ public class MainScreen extends VerticalLayout {
             String currentUsername = (String) VaadinSession.getCurrent().getAttribute("username");
             boolean isOwnBookmark = bookmark.getUsername().equals(currentUsername);
             
-            Icon icon = "Yes".equals(bookmark.getFavoriteOption())
+            Icon icon = bookmark.isFavorite()
                     ? VaadinIcon.STAR.create()
                     : VaadinIcon.STAR_O.create();
             icon.setColor("#fbbf24");
@@ -192,7 +205,7 @@ public class MainScreen extends VerticalLayout {
             }
             
             Button button = new Button(icon, click -> {
-                bookmark.setFavoriteOption("Yes".equals(bookmark.getFavoriteOption()) ? "No" : "Yes");
+                bookmark.setFavorite(!bookmark.isFavorite());
                 bookmarkService.addBookmark(bookmark);
                 refreshGrid();
             });
@@ -208,7 +221,7 @@ public class MainScreen extends VerticalLayout {
             }
             
             Button editButton = new Button(new Icon(VaadinIcon.EDIT), click -> {
-                UI.getCurrent().navigate("Edit-Bookmark-Screen");
+                UI.getCurrent().navigate(EditBookmarkScreen.class, bookmark.getId());
             });
             editButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY_INLINE);
             editButton.getStyle().set("color", "#059669");
@@ -246,6 +259,14 @@ public class MainScreen extends VerticalLayout {
 
         addBookmarkButton.addClickListener(event -> UI.getCurrent().navigate("Add-Bookmark-Screen"));
 
+        Button importButton = new Button("Import", VaadinIcon.UPLOAD.create());
+        importButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_LARGE);
+        importButton.getStyle()
+            .set("color", "#667eea")
+            .set("font-weight", "600")
+            .set("border-radius", "12px");
+        importButton.addClickListener(event -> UI.getCurrent().navigate("Import-Bookmarks-Screen"));
+
         // Enhanced user menu with change plan listener
         String username = (String) VaadinSession.getCurrent().getAttribute("username");
         String plan = oauthService.getPlanForUser(username);
@@ -254,6 +275,10 @@ public class MainScreen extends VerticalLayout {
         userMenu.addThemeVariants(MenuBarVariant.LUMO_TERTIARY);
         rootMenuItem = userMenu.addItem((username != null ? username : "User") + " (" + plan + ")");
         rootMenuItem.getSubMenu().addItem("Change Plan", e -> UI.getCurrent().navigate("plans"));
+        MenuItem exportItem = rootMenuItem.getSubMenu().addItem("Export");
+        for (BookmarkExportFormat format : BookmarkExportFormat.values()) {
+            exportItem.getSubMenu().addItem(createExportLink(format));
+        }
         rootMenuItem.getSubMenu().addItem("Logout", e -> {
             // Clear all session attributes
             VaadinSession.getCurrent().setAttribute("username", null);
@@ -278,7 +303,7 @@ public class MainScreen extends VerticalLayout {
         topBar.setWidthFull();
         topBar.setPadding(false);
         topBar.setAlignItems(FlexComponent.Alignment.CENTER);
-        topBar.add(title, addBookmarkButton, userMenu);
+        topBar.add(title, importButton, addBookmarkButton, userMenu);
         topBar.expand(title);
         topBar.getStyle().set("margin-bottom", "24px");
 
@@ -288,7 +313,7 @@ public class MainScreen extends VerticalLayout {
     private void setupDynamicSearchBar() {
         // Create basic search components
         searchField = new TextField();
-        searchField.setPlaceholder("Search by bookmark name...");
+        searchField.setPlaceholder("Search by name, tags or URL...");
         searchField.setClearButtonVisible(true);
         searchField.setWidth("400px");
         searchField.setPrefixComponent(new Icon(VaadinIcon.SEARCH));
@@ -298,10 +323,11 @@ public class MainScreen extends VerticalLayout {
         categoryFilter.setLabel("Category");
         categoryFilter.setPlaceholder("All Categories");
         categoryFilter.setWidth("200px");
-        categoryFilter.addValueChangeListener(e -> applyFilters(searchField.getValue(), categoryFilter.getValue()));
+        // Name and category predicates are evaluated by the database, see BookmarkFilter
+        categoryFilter.addValueChangeListener(e -> reloadGrid());
         styleCategoryFilter(categoryFilter);
 
-        searchField.addValueChangeListener(event -> applyFilters(event.getValue(), categoryFilter.getValue()));
+        searchField.addValueChangeListener(event -> reloadGrid());
 
         // Create premium search components
         userSearchField = new TextField();
@@ -361,18 +387,7 @@ public class MainScreen extends VerticalLayout {
     
     public void refreshUserInterface() {
         String username = (String) VaadinSession.getCurrent().getAttribute("username");
-        String plan = oauthService.getPlanForUser(username);
-        
-        // Check if plan has changed
-        if (!plan.equals(currentUserPlan)) {
-            currentUserPlan = plan;
-            updateSearchBarComponents();
-            
-            // Update user menu text
-            if (rootMenuItem != null) {
-                rootMenuItem.setText((username != null ? username : "User") + " (" + plan + ")");
-            }
-        }
+        applyPlan(username, oauthService.getPlanForUser(username));
         
         // Make sure search bar is added to the layout if it's not already
         if (!getChildren().anyMatch(component -> component == searchBar)) {
@@ -390,17 +405,51 @@ public class MainScreen extends VerticalLayout {
         }
     }
     
+    // Update the plan-dependent parts of the screen when the plan differs from what is shown
+    private void applyPlan(String username, String plan) {
+        if (plan.equals(currentUserPlan)) {
+            return;
+        }
+        boolean planChanged = !currentUserPlan.isEmpty();
+        currentUserPlan = plan;
+        updateSearchBarComponents();
+        
+        // Update user menu text
+        if (rootMenuItem != null) {
+            rootMenuItem.setText((username != null ? username : "User") + " (" + plan + ")");
+        }
+        
+        // The public feed's owner cap depends on the plan
+        if (planChanged && showingPublicBookmarks) {
+            reloadGrid();
+        }
+    }
+    
     // Public method to force refresh the UI - can be called when plan changes
     public void forceRefreshUI() {
         currentUserPlan = ""; // Reset to force update
         refreshUserInterface();
     }
-    
-    // Method to periodically check for plan changes (called from client-side)
-    public void checkForPlanChanges() {
-        getUI().ifPresent(ui -> ui.access(() -> {
-            refreshUserInterface();
-        }));
+
+    // Download link that streams the current user's bookmarks straight from the database
+    private Anchor createExportLink(BookmarkExportFormat format) {
+        StreamResource resource = new StreamResource("bookmarks." + format.getExtension(), (out, session) -> {
+            String owner;
+            session.lock();
+            try {
+                owner = (String) session.getAttribute("username");
+            } finally {
+                session.unlock();
+            }
+            if (owner != null) {
+                bookmarkExportService.export(owner, format, out);
+            }
+        });
+        resource.setContentType(format.getContentType() + "; charset=UTF-8");
+        resource.setCacheTime(0);
+        Anchor link = new Anchor(resource, format.name());
+        link.getElement().setAttribute("download", true);
+        return link;
     }
 
     private void styleSearchField(TextField field) {
@@ -449,120 +498,66 @@ public class MainScreen extends VerticalLayout {
         """);
     }
 
-    private void applyFilters(String searchTerm, String category) {
-        String currentUsername = (String) VaadinSession.getCurrent().getAttribute("username");
-        List<Bookmark> bookmarks;
-        
-        if (showingPublicBookmarks) {
-            bookmarks = bookmarkService.getAllPublicBookmarks();
-        } else {
-            bookmarks = bookmarkService.getBookmarksByUsername(currentUsername);
-        }
-
-        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            String lower = searchTerm.toLowerCase();
-            bookmarks = bookmarks.stream().filter(b ->
-                    b.getDisplayName().toLowerCase().contains(lower))
-                    .toList();
-        }
-
-        if (category != null && !category.isBlank()) {
-            bookmarks = bookmarks.stream()
-                    .filter(b -> category.equalsIgnoreCase(b.getCategory()))
-                    .toList();
-        }
-
-        dataProvider.getItems().clear();
-        dataProvider.getItems().addAll(sortBookmarks(bookmarks));
-        dataProvider.refreshAll();
-    }
-    
     private void populateCategoryOptions() {
         String currentUsername = (String) VaadinSession.getCurrent().getAttribute("username");
-        List<String> categories = bookmarkService.getBookmarksByUsername(currentUsername).stream()
-                .map(Bookmark::getCategory)
-                .filter(c -> c != null && !c.isBlank())
-                .distinct()
-                .toList();
-        categoryFilter.setItems(categories);
+        categoryFilter.setItems(bookmarkService.getCategoriesByUsername(currentUsername));
     }
     
     public void refreshGrid() {
-        String currentUsername = (String) VaadinSession.getCurrent().getAttribute("username");
-        
-        List<Bookmark> bookmarks;
-        
-        if (showingPublicBookmarks) {
-            // Show all public bookmarks from all users
-            bookmarks = Objects.requireNonNullElse(bookmarkService.getAllPublicBookmarks(), new ArrayList<>());
-        } else {
-            // Show user's own bookmarks
-            bookmarks = Objects.requireNonNullElse(bookmarkService.getBookmarksByUsername(currentUsername), new ArrayList<>());
-        }
-        
-        dataProvider.getItems().clear();
-        dataProvider.getItems().addAll(sortBookmarks(bookmarks));
-        dataProvider.refreshAll();
+        reloadGrid();
         populateCategoryOptions();
         refreshUserInterface(); // Refresh UI when grid refreshes
     }
     
-    private List<Bookmark> sortBookmarks(List<Bookmark> bookmarks) {
-        List<Bookmark> favorites = new ArrayList<>();
-        List<Bookmark> others = new ArrayList<>();
-        for (Bookmark b : bookmarks) {
-            if ("Yes".equals(b.getFavoriteOption())) {
-                favorites.add(b);
-            } else {
-                others.add(b);
-            }
+    // Rebuild the filter from the current tab and search inputs and re-read the visible rows
+    private void reloadGrid() {
+        gridFilter = bookmarkService.getGridFilter(showingPublicBookmarks, searchField.getValue(), categoryFilter.getValue(), activeTagsFilter);
+        pageCursor.reset();
+        if (grid.getDataProvider() == dataProvider) {
+            dataProvider.refreshAll();
+        } else {
+            grid.setItems(dataProvider);
         }
-        List<Bookmark> sortedBookmarks = new ArrayList<>();
-        sortedBookmarks.addAll(favorites);
-        sortedBookmarks.addAll(others);
-        return sortedBookmarks;
+    }
+    
+    // Lazy grid callbacks - only the rows in the viewport are read from the database
+    private List<Bookmark> fetchBookmarks(int offset, int limit) {
+        if (gridFilter == null) {
+            return new ArrayList<>();
+        }
+        List<Bookmark> page = bookmarkService.getBookmarksPage(gridFilter, pageCursor.keyBefore(offset), offset, limit);
+        pageCursor.record(offset, page);
+        return page;
+    }
+    
+    private int countBookmarks() {
+        if (gridFilter == null) {
+            return 0;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bookmarkService.countBookmarks(gridFilter));
     }
     
     @Override
     protected void onAttach(com.vaadin.flow.component.AttachEvent attachEvent) {
         super.onAttach(attachEvent);
         refreshUserInterface();
-        setupPlanChangeDetection();
-    }
-    
-    private void setupPlanChangeDetection() {
-        // Add client-side JavaScript to periodically check for plan changes
-        getElement().executeJs("""
-            // Check for plan changes every 2 seconds
-            if (window.planChangeInterval) {
-                clearInterval(window.planChangeInterval);
-            }
-            
-            window.planChangeInterval = setInterval(() => {
-                if ($0.$server && $0.$server.checkForPlanChanges) {
-                    $0.$server.checkForPlanChanges();
-                }
-            }, 2000);
-            
-            // Also check when window gains focus (user returns from another tab/page)
-            window.addEventListener('focus', () => {
-                if ($0.$server && $0.$server.checkForPlanChanges) {
-                    $0.$server.checkForPlanChanges();
-                }
-            });
-        """, getElement());
+        
+        // Plan changes (plan screen, Stripe payment success) are pushed to this UI instead of polled
+        String username = (String) VaadinSession.getCurrent().getAttribute("username");
+        if (username != null && planChangeRegistration == null) {
+            UI ui = attachEvent.getUI();
+            planChangeRegistration = planChangeBroadcaster.register(username,
+                newPlan -> ui.access(() -> applyPlan(username, newPlan)));
+        }
     }
     
     @Override
     protected void onDetach(com.vaadin.flow.component.DetachEvent detachEvent) {
         super.onDetach(detachEvent);
-        // Clean up the interval when component is detached
-        getElement().executeJs("""
-            if (window.planChangeInterval) {
-                clearInterval(window.planChangeInterval);
-                window.planChangeInterval = null;
-            }
-        """);
+        if (planChangeRegistration != null) {
+            planChangeRegistration.remove();
+            planChangeRegistration = null;
+        }
     }
 
     private void setupTabs() {
@@ -590,18 +585,8 @@ public class MainScreen extends VerticalLayout {
     }
 
     private void applyTagsFilter(String tags) {
-        String currentUsername = (String) VaadinSession.getCurrent().getAttribute("username");
-        List<Bookmark> bookmarks = bookmarkService.getBookmarksByUsername(currentUsername);
-
-        if (tags != null && !tags.trim().isEmpty()) {
-            String lower = tags.toLowerCase();
-            bookmarks = bookmarks.stream()
-                    .filter(b -> b.getTagsInput().toLowerCase().contains(lower))
-                    .toList();
-        }
-
-        dataProvider.getItems().clear();
-        dataProvider.getItems().addAll(sortBookmarks(bookmarks));
-        dataProvider.refreshAll();
+        // Tags are matched exactly through the indexed bookmark_tags table, in either tab
+        activeTagsFilter = tags;
+        reloadGrid();
     }
-}
+}
\ No newline at end of file
@@ -1,37 +1,357 @@
 package com.example.BookmarkApp;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Talks to the configured identity providers (see OauthProperties) over one shared
+ * HttpClient: pooled HTTP/2 connections, virtual threads for async work, so a slow
+ * provider parks instead of holding platform threads. Every request carries the
+ * provider's request-timeout.
+ *
+ * Discovery documents and JWKS are cached per provider and refreshed in the background
+ * shortly before they expire, so logins do not download provider metadata. A signed
+ * ID token is verified against the cached keys and, when it carries the username and
+ * email, the user-info call is skipped.
+ *
+ * Metrics: oauth.client.requests{provider, operation, outcome} timers.
+ */
 @Component
 public class OauthClient {
+
+    /** Tokens from the code exchange; idToken is null for plain OAuth providers. */
+    public record OauthTokens(String accessToken, String idToken) {
+    }
+
+    private final OauthProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final Map<String, OauthProviderMetadata> metadata = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<OauthProviderMetadata>> metadataLoads = new ConcurrentHashMap<>();
+
+    public OauthClient(OauthProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
     /**
      * Build provider-specific authorization URL.
-     * This is a stub and should be replaced with real provider configuration.
      */
     public String buildAuthorizationUrl(String provider) {
-        return "https://" + provider + ".com/oauth/authorize?client_id=CLIENT_ID" +
-               "&redirect_uri=http://localhost:8080/oauth/callback/" + provider +
-               "&response_type=code&scope=profile%20email";
+        OauthProperties.Provider config = provider(provider);
+        return metadata(provider).authorizationEndpoint()
+                + "?client_id=" + encode(config.getClientId())
+                + "&redirect_uri=" + encode(config.getRedirectUri())
+                + "&response_type=code"
+                + "&scope=" + encode(config.getScope());
     }
 
     /**
-     * Exchange authorization code for an access token.
-     * Stubbed for demonstration.
+     * Exchange authorization code for an access token (and an ID token, for OpenID providers).
      */
-    public String exchangeCodeForAccessToken(String provider, String code) {
-        // TODO implement HTTP call to provider token endpoint.
-        return "mock-token-" + provider + "-" + code;
+    public OauthTokens exchangeCodeForAccessToken(String provider, String code) {
+        OauthProperties.Provider config = provider(provider);
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("grant_type", "authorization_code");
+        form.put("code", code);
+        form.put("redirect_uri", config.getRedirectUri());
+        form.put("client_id", config.getClientId());
+        form.put("client_secret", config.getClientSecret());
+        StringJoiner body = new StringJoiner("&");
+        form.forEach((name, value) -> body.add(encode(name) + "=" + encode(value)));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(metadata(provider).tokenEndpoint()))
+                .timeout(config.getRequestTimeout())
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        JsonNode response = call(provider, "token", request);
+        if (!response.hasNonNull("access_token")) {
+            throw new OauthProviderException(provider + " token response has no access_token: "
+                    + response.path("error").asText("unknown error"));
+        }
+        return new OauthTokens(response.get("access_token").asText(),
+                response.hasNonNull("id_token") ? response.get("id_token").asText() : null);
     }
 
     /**
-     * Retrieve basic user info using the access token.
-     * Stubbed for demonstration.
+     * Retrieve basic user info: from the verified ID token when it has everything, otherwise
+     * from the user-info endpoint (and the emails endpoint, in parallel, where configured).
      */
-    public OauthUser fetchUserInfo(String provider, String accessToken) {
+    public OauthUser fetchUserInfo(String provider, OauthTokens tokens) {
+        OauthProperties.Provider config = provider(provider);
+        if (tokens.idToken() != null) {
+            JsonNode claims = verifyIdToken(provider, config, tokens.idToken());
+            if (claims.hasNonNull(config.getUsernameAttribute()) && claims.hasNonNull(config.getEmailAttribute())) {
+                return toUser(claims.get(config.getUsernameAttribute()).asText(), claims.get(config.getEmailAttribute()).asText());
+            }
+        }
+
+        String userInfoUri = metadata(provider).userInfoEndpoint();
+        if (userInfoUri == null) {
+            throw new OauthProviderException(provider + " has no user-info endpoint and the ID token lacks the user's details");
+        }
+        CompletableFuture<JsonNode> userInfo = request(provider, "userinfo", authorized(userInfoUri, config, tokens));
+        CompletableFuture<JsonNode> emails = config.getEmailsUri() != null
+                ? request(provider, "emails", authorized(config.getEmailsUri(), config, tokens))
+                : CompletableFuture.completedFuture(null);
+        JsonNode info = join(userInfo);
+        String username = info.hasNonNull(config.getUsernameAttribute())
+                ? info.get(config.getUsernameAttribute()).asText() : info.path("sub").asText(null);
+        String email = info.hasNonNull(config.getEmailAttribute()) ? info.get(config.getEmailAttribute()).asText() : null;
+        if (email == null) {
+            email = primaryEmail(join(emails));
+        }
+        if (username == null || email == null) {
+            throw new OauthProviderException(provider + " user info lacks " + config.getUsernameAttribute() + " or email");
+        }
+        return toUser(username, email);
+    }
+
+    // Cached metadata; fetched on first use or expiry, refreshed ahead of expiry in the background
+    OauthProviderMetadata metadata(String provider) {
+        OauthProviderMetadata current = metadata.get(provider);
+        long ttl = properties.getMetadataTtl().toNanos();
+        if (current == null || current.ageNanos() > ttl) {
+            try {
+                return join(loadMetadata(provider));
+            } catch (OauthProviderException e) {
+                if (current == null) {
+                    throw e;
+                }
+                // Provider unreachable: keep using what we have rather than failing logins
+                System.out.println("Using stale " + provider + " metadata: " + e.getMessage());
+                return current;
+            }
+        }
+        if (current.ageNanos() > ttl - properties.getMetadataRefreshAhead().toNanos()) {
+            loadMetadata(provider);
+        }
+        return current;
+    }
+
+    // Single-flight: concurrent callers share the one fetch in progress
+    private CompletableFuture<OauthProviderMetadata> loadMetadata(String provider) {
+        CompletableFuture<OauthProviderMetadata> load = new CompletableFuture<>();
+        CompletableFuture<OauthProviderMetadata> inFlight = metadataLoads.putIfAbsent(provider, load);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        executor.execute(() -> {
+            try {
+                OauthProviderMetadata loaded = fetchMetadata(provider, provider(provider));
+                metadata.put(provider, loaded);
+                metadataLoads.remove(provider, load);
+                load.complete(loaded);
+            } catch (RuntimeException e) {
+                metadataLoads.remove(provider, load);
+                load.completeExceptionally(e);
+            }
+        });
+        return load;
+    }
+
+    private OauthProviderMetadata fetchMetadata(String provider, OauthProperties.Provider config) {
+        JsonNode discovery = null;
+        if (config.getIssuer() != null && !config.getIssuer().isBlank()) {
+            String issuer = config.getIssuer().replaceAll("/+$", "");
+            discovery = call(provider, "discovery", get(issuer + "/.well-known/openid-configuration", config));
+        }
+        String jwksUri = OauthProviderMetadata.jwksUri(config, discovery);
+        JsonNode jwks = jwksUri != null ? call(provider, "jwks", get(jwksUri, config)) : null;
+        return new OauthProviderMetadata(config, discovery, jwks);
+    }
+
+    // Claims of a correctly signed, unexpired ID token issued to us; RS256 only
+    private JsonNode verifyIdToken(String provider, OauthProperties.Provider config, String idToken) {
+        String[] parts = idToken.split("\\.");
+        if (parts.length != 3) {
+            throw new OauthProviderException(provider + " returned a malformed ID token");
+        }
+        JsonNode header = decodeJson(parts[0]);
+        JsonNode claims = decodeJson(parts[1]);
+        if (!"RS256".equals(header.path("alg").asText())) {
+            throw new OauthProviderException(provider + " ID token uses unsupported alg " + header.path("alg").asText());
+        }
+        String kid = header.path("kid").asText("");
+        PublicKey key = metadata(provider).signingKeys().get(kid);
+        if (key == null) {
+            // Keys may have rotated since the last fetch
+            key = join(loadMetadata(provider)).signingKeys().get(kid);
+        }
+        if (key == null) {
+            throw new OauthProviderException(provider + " ID token signed with unknown key " + kid);
+        }
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(key);
+            signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            if (!signature.verify(Base64.getUrlDecoder().decode(parts[2]))) {
+                throw new OauthProviderException(provider + " ID token signature is invalid");
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new OauthProviderException(provider + " ID token signature could not be checked", e);
+        }
+
+        String issuer = metadata(provider).issuer();
+        JsonNode audience = claims.path("aud");
+        boolean forUs = audience.isArray()
+                ? containsText(audience, config.getClientId())
+                : config.getClientId().equals(audience.asText());
+        if ((issuer != null && !issuer.equals(claims.path("iss").asText())) || !forUs
+                || claims.path("exp").asLong(0) < System.currentTimeMillis() / 1000) {
+            throw new OauthProviderException(provider + " ID token has the wrong issuer or audience, or has expired");
+        }
+        return claims;
+    }
+
+    private CompletableFuture<JsonNode> request(String provider, String operation, HttpRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    String outcome = error == null ? (response.statusCode() / 100 == 2 ? "success" : "error")
+                            : (unwrap(error) instanceof HttpTimeoutException ? "timeout" : "error");
+                    sample.stop(meterRegistry.timer("oauth.client.requests",
+                            "provider", provider, "operation", operation, "outcome", outcome));
+                    if (error != null) {
+                        throw new OauthProviderException(provider + " " + operation + " request failed: " + unwrap(error), unwrap(error));
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        throw new OauthProviderException(provider + " " + operation + " returned HTTP " + response.statusCode());
+                    }
+                    try {
+                        return objectMapper.readTree(response.body());
+                    } catch (IOException e) {
+                        throw new OauthProviderException(provider + " " + operation + " returned unreadable JSON", e);
+                    }
+                });
+    }
+
+    private JsonNode call(String provider, String operation, HttpRequest request) {
+        return join(request(provider, operation, request));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            throw cause instanceof OauthProviderException providerException
+                    ? providerException : new OauthProviderException(cause.getMessage(), cause);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static HttpRequest get(String uri, OauthProperties.Provider config) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(config.getRequestTimeout())
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest authorized(String uri, OauthProperties.Provider config, OauthTokens tokens) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(config.getRequestTimeout())
+                .header("Accept", "application/json")
+                .header("Authorization", "Bearer " + tokens.accessToken())
+                .GET()
+                .build();
+    }
+
+    // GitHub-style [{"email": ..., "primary": true, "verified": true}, ...]
+    private static String primaryEmail(JsonNode emails) {
+        if (emails == null) {
+            return null;
+        }
+        for (JsonNode entry : emails) {
+            if (entry.path("primary").asBoolean() && entry.path("verified").asBoolean()) {
+                return entry.path("email").asText(null);
+            }
+        }
+        return null;
+    }
+
+    private static boolean containsText(JsonNode array, String value) {
+        for (JsonNode element : array) {
+            if (value.equals(element.asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private JsonNode decodeJson(String base64Url) {
+        try {
+            return objectMapper.readTree(Base64.getUrlDecoder().decode(base64Url));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new OauthProviderException("Unreadable ID token", e);
+        }
+    }
+
+    private OauthProperties.Provider provider(String provider) {
+        OauthProperties.Provider config = properties.getProviders().get(provider);
+        if (config == null) {
+            throw new IllegalArgumentException("Unknown OAuth provider: " + provider);
+        }
+        return config;
+    }
+
+    private static OauthUser toUser(String username, String email) {
         OauthUser user = new OauthUser();
-        user.setUsername("demo-" + provider);
+        user.setUsername(username);
         user.setPassword(null); // password not provided by OAuth providers
-        user.setEmail("demo@" + provider + ".com");
+        user.setEmail(email);
         return user;
     }
-}
\ No newline at end of file
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value != null ? value : "", StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.close();
+        executor.shutdownNow();
+    }
+}
@@ -21,7 +21,15 @@ public class OauthController {
      */
     @GetMapping("/oauth/login/{provider}")
     public ResponseEntity<Void> login(@PathVariable String provider) {
-        String redirectUrl = oauthService.getAuthorizationUrl(provider);
+        String redirectUrl;
+        try {
+            redirectUrl = oauthService.getAuthorizationUrl(provider);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OauthProviderException e) {
+            System.err.println("OAuth login via " + provider + " failed: " + e.getMessage());
+            return ResponseEntity.status(502).build();
+        }
         HttpHeaders headers = new HttpHeaders();
         headers.add("Location", redirectUrl);
         return ResponseEntity.status(302).headers(headers).build();
@@ -33,7 +41,15 @@ public class OauthController {
      */
     @GetMapping("/oauth/callback/{provider}")
     public ResponseEntity<OauthUser> callback(@PathVariable String provider, @RequestParam String code) {
-        OauthUser user = oauthService.handleCallback(provider, code);
-        return ResponseEntity.ok(user);
+        try {
+            OauthUser user = oauthService.handleCallback(provider, code);
+            return ResponseEntity.ok(user);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OauthProviderException e) {
+            // Slow or failing provider: the request ends at its timeout instead of hanging
+            System.err.println("OAuth callback from " + provider + " failed: " + e.getMessage());
+            return ResponseEntity.status(502).build();
+        }
     }
 }
@@ -0,0 +1,177 @@
+package com.example.BookmarkApp;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * OAuth / OpenID Connect providers, bound from app.oauth.providers.&lt;name&gt;.*.
+ * With an issuer, endpoints and keys come from its discovery document; any endpoint
+ * set explicitly (e.g. for GitHub, which has no discovery) takes precedence.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.oauth")
+public class OauthProperties {
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    // Discovery/JWKS are re-fetched after metadata-ttl; within metadata-refresh-ahead of
+    // expiry a background refresh starts, so logins never wait on it
+    private Duration metadataTtl = Duration.ofHours(1);
+    private Duration metadataRefreshAhead = Duration.ofMinutes(10);
+    private Map<String, Provider> providers = new LinkedHashMap<>();
+
+    public static class Provider {
+        private String clientId;
+        private String clientSecret;
+        private String issuer;
+        private String authorizationUri;
+        private String tokenUri;
+        private String userInfoUri;
+        // Extra endpoint listing the user's emails, fetched alongside user info (GitHub)
+        private String emailsUri;
+        private String jwksUri;
+        private String redirectUri;
+        private String scope = "openid profile email";
+        private String usernameAttribute = "preferred_username";
+        private String emailAttribute = "email";
+        private Duration requestTimeout = Duration.ofSeconds(5);
+
+        public String getClientId() {
+            return clientId;
+        }
+
+        public void setClientId(String clientId) {
+            this.clientId = clientId;
+        }
+
+        public String getClientSecret() {
+            return clientSecret;
+        }
+
+        public void setClientSecret(String clientSecret) {
+            this.clientSecret = clientSecret;
+        }
+
+        public String getIssuer() {
+            return issuer;
+        }
+
+        public void setIssuer(String issuer) {
+            this.issuer = issuer;
+        }
+
+        public String getAuthorizationUri() {
+            return authorizationUri;
+        }
+
+        public void setAuthorizationUri(String authorizationUri) {
+            this.authorizationUri = authorizationUri;
+        }
+
+        public String getTokenUri() {
+            return tokenUri;
+        }
+
+        public void setTokenUri(String tokenUri) {
+            this.tokenUri = tokenUri;
+        }
+
+        public String getUserInfoUri() {
+            return userInfoUri;
+        }
+
+        public void setUserInfoUri(String userInfoUri) {
+            this.userInfoUri = userInfoUri;
+        }
+
+        public String getEmailsUri() {
+            return emailsUri;
+        }
+
+        public void setEmailsUri(String emailsUri) {
+            this.emailsUri = emailsUri;
+        }
+
+        public String getJwksUri() {
+            return jwksUri;
+        }
+
+        public void setJwksUri(String jwksUri) {
+            this.jwksUri = jwksUri;
+        }
+
+        public String getRedirectUri() {
+            return redirectUri;
+        }
+
+        public void setRedirectUri(String redirectUri) {
+            this.redirectUri = redirectUri;
+        }
+
+        public String getScope() {
+            return scope;
+        }
+
+        public void setScope(String scope) {
+            this.scope = scope;
+        }
+
+        public String getUsernameAttribute() {
+            return usernameAttribute;
+        }
+
+        public void setUsernameAttribute(String usernameAttribute) {
+            this.usernameAttribute = usernameAttribute;
+        }
+
+        public String getEmailAttribute() {
+            return emailAttribute;
+        }
+
+        public void setEmailAttribute(String emailAttribute) {
+            this.emailAttribute = emailAttribute;
+        }
+
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getMetadataTtl() {
+        return metadataTtl;
+    }
+
+    public void setMetadataTtl(Duration metadataTtl) {
+        this.metadataTtl = metadataTtl;
+    }
+
+    public Duration getMetadataRefreshAhead() {
+        return metadataRefreshAhead;
+    }
+
+    public void setMetadataRefreshAhead(Duration metadataRefreshAhead) {
+        this.metadataRefreshAhead = metadataRefreshAhead;
+    }
+
+    public Map<String, Provider> getProviders() {
+        return providers;
+    }
+
+    public void setProviders(Map<String, Provider> providers) {
+        this.providers = providers;
+    }
+}
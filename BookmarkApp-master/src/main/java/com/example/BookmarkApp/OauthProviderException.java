@@ -0,0 +1,14 @@
+package com.example.BookmarkApp;
+
+/**
+ * An identity provider call failed, timed out or returned something unusable.
+ */
+public class OauthProviderException extends RuntimeException {
+    public OauthProviderException(String message) {
+        super(message);
+    }
+
+    public OauthProviderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.BookmarkApp;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One provider's endpoints and ID-token signing keys, as cached by OauthClient.
+ * Explicitly configured endpoints win over the discovery document.
+ */
+final class OauthProviderMetadata {
+    private final String issuer;
+    private final String authorizationEndpoint;
+    private final String tokenEndpoint;
+    private final String userInfoEndpoint;
+    private final Map<String, PublicKey> signingKeys;
+    private final long fetchedAt;
+
+    OauthProviderMetadata(OauthProperties.Provider config, JsonNode discovery, JsonNode jwks) {
+        this.issuer = firstNonBlank(config.getIssuer(), text(discovery, "issuer"));
+        this.authorizationEndpoint = firstNonBlank(config.getAuthorizationUri(), text(discovery, "authorization_endpoint"));
+        this.tokenEndpoint = firstNonBlank(config.getTokenUri(), text(discovery, "token_endpoint"));
+        this.userInfoEndpoint = firstNonBlank(config.getUserInfoUri(), text(discovery, "userinfo_endpoint"));
+        this.signingKeys = jwks != null ? parseRsaKeys(jwks) : Collections.emptyMap();
+        this.fetchedAt = System.nanoTime();
+    }
+
+    String issuer() {
+        return issuer;
+    }
+
+    String authorizationEndpoint() {
+        return authorizationEndpoint;
+    }
+
+    String tokenEndpoint() {
+        return tokenEndpoint;
+    }
+
+    String userInfoEndpoint() {
+        return userInfoEndpoint;
+    }
+
+    Map<String, PublicKey> signingKeys() {
+        return signingKeys;
+    }
+
+    long ageNanos() {
+        return System.nanoTime() - fetchedAt;
+    }
+
+    // jwks_uri from discovery, unless configured
+    static String jwksUri(OauthProperties.Provider config, JsonNode discovery) {
+        return firstNonBlank(config.getJwksUri(), text(discovery, "jwks_uri"));
+    }
+
+    // RSA signature keys by kid; other key types are ignored
+    private static Map<String, PublicKey> parseRsaKeys(JsonNode jwks) {
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (JsonNode key : jwks.path("keys")) {
+            if (!"RSA".equals(key.path("kty").asText()) || "enc".equals(key.path("use").asText())) {
+                continue;
+            }
+            try {
+                BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("n").asText()));
+                BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("e").asText()));
+                keys.put(key.path("kid").asText(""), KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                System.out.println("Skipping unreadable JWK " + key.path("kid").asText() + ": " + e.getMessage());
+            }
+        }
+        return Collections.unmodifiableMap(keys);
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node != null && node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    private static String firstNonBlank(String configured, String discovered) {
+        return configured != null && !configured.isBlank() ? configured : discovered;
+    }
+}
@@ -1,11 +1,62 @@
 package com.example.BookmarkApp;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface OauthRepository extends JpaRepository<OauthUser, Long> {
+import jakarta.persistence.QueryHint;
+
+// findByUsername is a natural-id lookup, see OauthRepositoryImpl
+public interface OauthRepository extends JpaRepository<OauthUser, Long>, OauthRepositoryCustom {
     Optional<OauthUser> findByEmail(String email);
 
-    Optional<OauthUser> findByUsername(String username);
+    // Applies a webhook plan change unless a newer event already set the plan. The row lock orders
+    // concurrent workers: the second UPDATE re-checks the condition after the first commits
+    @Modifying
+    @Query("UPDATE OauthUser u SET u.plan = :plan, u.planEventCreated = :created WHERE u.username = :username "
+            + "AND (u.planEventCreated IS NULL OR u.planEventCreated <= :created)")
+    int updatePlanIfNotOlder(@Param("username") String username, @Param("plan") String plan,
+                             @Param("created") long created);
+
+    boolean existsByEmail(String email);
+
+    // Every (username, email) pair, without loading entities; for the availability filters
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000")
+    })
+    @Query("SELECT u.username, u.email FROM OauthUser u")
+    Stream<Object[]> streamUsernamesAndEmails();
+
+    // Highest account id, read before a full load so the refresh below starts where it ended
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM OauthUser u")
+    long findMaxId();
+
+    // (id, username, email) of accounts above an id, in id order; the in-memory indexes poll
+    // this to pick up accounts created on other instances
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000")
+    })
+    @Query("SELECT u.id, u.username, u.email FROM OauthUser u WHERE u.id > :after ORDER BY u.id")
+    Stream<Object[]> streamAccountsAfter(@Param("after") long after);
+
+    // Every username, for UsernamePrefixIndex
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000")
+    })
+    @Query("SELECT u.username FROM OauthUser u WHERE u.username IS NOT NULL")
+    Stream<String> streamUsernames();
+
+    // Usernames matching a LIKE pattern on LOWER(username), served by the pg_trgm index
+    // (migration 8); names after (afterLower, after) only, when given
+    @Query(value = "SELECT username FROM oauth_users WHERE LOWER(username) LIKE :pattern ESCAPE '\\' "
+            + "AND (CAST(:after AS text) IS NULL OR (LOWER(username), username) > (LOWER(CAST(:after AS text)), CAST(:after AS text))) "
+            + "ORDER BY LOWER(username), username LIMIT :limit", nativeQuery = true)
+    List<String> findUsernamesLike(@Param("pattern") String pattern, @Param("after") String after, @Param("limit") int limit);
 }
@@ -0,0 +1,12 @@
+package com.example.BookmarkApp;
+
+import java.util.Optional;
+
+public interface OauthRepositoryCustom {
+
+    /**
+     * Look a user up by username, the entity's natural id. Always reads the current
+     * row; OauthUser is deliberately not in the second-level cache.
+     */
+    Optional<OauthUser> findByUsername(String username);
+}
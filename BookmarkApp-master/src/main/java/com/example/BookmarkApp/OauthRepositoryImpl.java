@@ -0,0 +1,29 @@
+package com.example.BookmarkApp;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Natural-id lookups behind {@link OauthRepositoryCustom}. bySimpleNaturalId
+ * returns the entity already in the persistence context without a query, so
+ * repeated lookups within one transaction hit the database once.
+ */
+class OauthRepositoryImpl implements OauthRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<OauthUser> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(OauthUser.class)
+                .loadOptional(username);
+    }
+}
@@ -1,24 +1,54 @@
 package com.example.BookmarkApp;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class OauthService {
     private final OauthRepository oauthRepository;
     private final OauthClient oauthClient;
     private final PasswordEncoder passwordEncoder;
+    private final PlanChangeBroadcaster planChangeBroadcaster;
+    private final ReadYourWritesTracker readYourWrites;
+    private final PasswordVerificationExecutor passwordVerificationExecutor;
+    private final PasswordRehashWriter passwordRehashWriter;
+    private final AccountAvailabilityIndex accountAvailability;
+    private final UsernamePrefixIndex usernamePrefixIndex;
+    private final CacheManager cacheManager;
     
 
-    public OauthService(OauthRepository oauthRepository, OauthClient oauthClient, PasswordEncoder passwordEncoder) {
+    public OauthService(OauthRepository oauthRepository, OauthClient oauthClient, PasswordEncoder passwordEncoder,
+                        PlanChangeBroadcaster planChangeBroadcaster, ReadYourWritesTracker readYourWrites,
+                        PasswordVerificationExecutor passwordVerificationExecutor,
+                        PasswordRehashWriter passwordRehashWriter, AccountAvailabilityIndex accountAvailability,
+                        UsernamePrefixIndex usernamePrefixIndex, CacheManager cacheManager) {
         this.oauthRepository = oauthRepository;
         this.oauthClient = oauthClient;
         this.passwordEncoder = passwordEncoder;
+        this.planChangeBroadcaster = planChangeBroadcaster;
+        this.readYourWrites = readYourWrites;
+        this.passwordVerificationExecutor = passwordVerificationExecutor;
+        this.passwordRehashWriter = passwordRehashWriter;
+        this.accountAvailability = accountAvailability;
+        this.usernamePrefixIndex = usernamePrefixIndex;
+        this.cacheManager = cacheManager;
     }
 
     public String getAuthorizationUrl(String provider) {
@@ -26,39 +56,94 @@ public class OauthService {
     }
 
     public OauthUser handleCallback(String provider, String code) {
-        String token = oauthClient.exchangeCodeForAccessToken(provider, code);
-        OauthUser fetched = oauthClient.fetchUserInfo(provider, token);
+        OauthClient.OauthTokens tokens = oauthClient.exchangeCodeForAccessToken(provider, code);
+        OauthUser fetched = oauthClient.fetchUserInfo(provider, tokens);
         return oauthRepository
                 .findByEmail(fetched.getEmail())
-                .orElseGet(() -> oauthRepository.save(fetched));
+                .orElseGet(() -> {
+                    OauthUser saved = oauthRepository.save(fetched);
+                    readYourWrites.recordWrite(saved.getUsername());
+                    indexNewAccount(saved.getUsername(), saved.getEmail());
+                    return saved;
+                });
     }
 
     // ------------------ manual signup / login -----------------------
     @Transactional
     public OauthUser signUp(String username, String password, String email) throws IllegalArgumentException {
-        // basic duplicate check on username or email
+        // basic duplicate check on username or email, against the indexed columns: the
+        // availability filters can miss accounts created on another instance since their last refresh
         if (oauthRepository.findByUsername(username).isPresent()) {
             throw new IllegalArgumentException("Username already taken");
         }
-        if (oauthRepository.findByEmail(email).isPresent()) {
+        if (oauthRepository.existsByEmail(email)) {
             throw new IllegalArgumentException("Email already registered");
         }
         
         // Encrypt the password before saving
         String encryptedPassword = passwordEncoder.encode(password);
         OauthUser user = new OauthUser(username, encryptedPassword, email);
-        OauthUser saved = oauthRepository.save(user);
+        OauthUser saved;
+        try {
+            saved = oauthRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Taken by a concurrent signup or on another instance; the unique constraints decide
+            throw new IllegalArgumentException("Username or email already registered");
+        }
+        readYourWrites.recordWrite(username); // the login that follows must find the new row
+        indexNewAccount(username, email);
         
         return saved;
     }
 
+    // The in-memory indexes only learn of an account once its row is committed, so a signup
+    // that rolls back never shows up as taken; outside a transaction the save has already committed
+    private void indexNewAccount(String username, String email) {
+        Runnable index = () -> {
+            accountAvailability.recordAccount(username, email);
+            usernamePrefixIndex.add(username);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index.run();
+            }
+        });
+    }
+
+    // Live sign-up form checks; usually answered from memory, see AccountAvailabilityIndex
+    @Transactional(readOnly = true)
+    public boolean isUsernameAvailable(String username) {
+        return !accountAvailability.isUsernameTaken(username);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmailAvailable(String email) {
+        return !accountAvailability.isEmailTaken(email);
+    }
+
     public boolean authenticate(String username, String password) {
         return authenticateWithMigration(username, password);
     }
 
+    /**
+     * Same as authenticate, but the hash check runs on the bounded verification pool.
+     * Fails fast with RejectedExecutionException when logins are being shed.
+     */
+    public CompletableFuture<Boolean> authenticateAsync(String username, String password, String clientAddress) {
+        return passwordVerificationExecutor.submit(username, clientAddress,
+                () -> authenticateWithMigration(username, password));
+    }
+
     /**
      * Authenticate with automatic migration from plain text to encrypted passwords.
      * This method handles both existing plain text passwords and new encrypted passwords.
+     * Plain text and outdated hashes are upgraded by PasswordRehashWriter after the login,
+     * not on the login path.
      */
     private boolean authenticateWithMigration(String username, String password) {
         Optional<OauthUser> userOpt = oauthRepository.findByUsername(username);
@@ -69,16 +154,19 @@ public class OauthService {
         OauthUser user = userOpt.get();
         String storedPassword = user.getPassword();
         
-        // Check if password is already encrypted (BCrypt hashes start with $2a$, $2b$, or $2y$)
-        if (storedPassword != null && storedPassword.startsWith("$2")) {
+        // Check if password is already encrypted: versioned "{id}..." or a legacy BCrypt hash ($2a$, $2b$, $2y$)
+        if (isEncoded(storedPassword)) {
             // Password is already encrypted, use normal verification
-            return passwordEncoder.matches(password, storedPassword);
+            boolean matches = passwordEncoder.matches(password, storedPassword);
+            if (matches && passwordEncoder.upgradeEncoding(storedPassword)) {
+                passwordRehashWriter.schedule(username, storedPassword, password);
+            }
+            return matches;
         } else {
             // Password is plain text, check directly and then encrypt
             if (password.equals(storedPassword)) {
                 // Migrate the password to encrypted format
-                user.setPassword(passwordEncoder.encode(password));
-                oauthRepository.save(user);
+                passwordRehashWriter.schedule(username, storedPassword, password);
                 return true;
             } else {
                 return false;
@@ -86,28 +174,98 @@ public class OauthService {
         }
     }
 
+    private static boolean isEncoded(String storedPassword) {
+        return storedPassword != null
+                && (storedPassword.startsWith("$2") || storedPassword.startsWith("{bcrypt}")
+                        || storedPassword.startsWith("{pbkdf2"));
+    }
+
+    /**
+     * Plan lookups are served from the "plans" cache (bounded, 60s TTL, see application.properties).
+     * Hit/miss counts are exported as cache.gets metrics. Misses read from the replica if one is configured.
+     */
+    @Cacheable(value = "plans", key = "#username", condition = "#username != null")
+    @Transactional(readOnly = true)
     public String getPlanForUser(String username) {
+        readYourWrites.bindReader(username);
         return oauthRepository.findByUsername(username)
                 .map(OauthUser::getPlan)
                 .orElse("Free");
     }
 
+    // Also the path taken by StripeController.handlePaymentSuccess, so both notify open dashboards
+    @CacheEvict(value = "plans", key = "#username", condition = "#username != null")
     public void updatePlan(String username, String newPlan) {
         oauthRepository.findByUsername(username).ifPresent(user -> {
             user.setPlan(newPlan);
             oauthRepository.save(user);
+            // Otherwise a lagging replica could put the old plan back into the cache
+            readYourWrites.recordWrite(username);
+            planChangeBroadcaster.broadcast(username, newPlan);
         });
     }
     
-    // Get all usernames for search functionality
-    public List<String> getAllUsernames() {
-        return oauthRepository.findAll().stream()
-                .map(OauthUser::getUsername)
-                .collect(Collectors.toList());
+    // Username autocomplete: up to limit names starting with prefix (case-insensitive),
+    // ordered by lower-case name. Served from UsernamePrefixIndex once it has loaded
+    @Transactional(readOnly = true)
+    public List<String> searchUsernames(String prefix, int limit) {
+        return searchUsernames(prefix, null, limit);
+    }
+
+    // Next page of searchUsernames: names after the last one of the previous page
+    @Transactional(readOnly = true)
+    public List<String> searchUsernames(String prefix, String after, int limit) {
+        List<String> names = usernamePrefixIndex.search(prefix, after, limit);
+        if (names != null) {
+            return names;
+        }
+        String lowerPrefix = prefix == null ? "" : prefix.toLowerCase(Locale.ROOT);
+        return oauthRepository.findUsernamesLike(
+                BookmarkRepositoryImpl.escapeLikeWildcards(lowerPrefix) + "%", after, limit);
+    }
+
+    // Usernames containing term anywhere, from the trigram index; for searches that are not prefixes
+    @Transactional(readOnly = true)
+    public List<String> searchUsernamesContaining(String term, String after, int limit) {
+        String lowerTerm = term == null ? "" : term.toLowerCase(Locale.ROOT);
+        return oauthRepository.findUsernamesLike(
+                "%" + BookmarkRepositoryImpl.escapeLikeWildcards(lowerTerm) + "%", after, limit);
+    }
+    
+    // Several plan changes in one transaction (webhook batches, see StripeWebhookProcessor).
+    // Applied in Stripe event order, and a change older than the event that last set the user's
+    // plan is skipped, so a retried or late event never undoes a newer one in any batch or worker.
+    // Cache eviction and the push to open dashboards wait for the commit, so a plan that
+    // rolls back is never cached or shown
+    @Transactional
+    public void updatePlans(List<StripeService.PlanChange> changes) {
+        List<StripeService.PlanChange> ordered = new ArrayList<>(changes);
+        ordered.sort(Comparator.comparingLong(StripeService.PlanChange::created));
+        Map<String, String> applied = new LinkedHashMap<>();
+        for (StripeService.PlanChange change : ordered) {
+            if (oauthRepository.updatePlanIfNotOlder(change.username(), change.plan(), change.created()) > 0) {
+                readYourWrites.recordWrite(change.username());
+                applied.put(change.username(), change.plan());
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Cache plans = cacheManager.getCache("plans");
+                applied.forEach((username, plan) -> {
+                    if (plans != null) {
+                        plans.evict(username);
+                    }
+                    planChangeBroadcaster.broadcast(username, plan);
+                });
+            }
+        });
     }
     
     // Get user's email by username
+    @Transactional(readOnly = true)
     public String getEmailForUser(String username) {
+        readYourWrites.bindReader(username);
         return oauthRepository.findByUsername(username)
                 .map(OauthUser::getEmail)
                 .orElse(null);
@@ -124,6 +282,7 @@ public class OauthService {
             String encryptedPassword = passwordEncoder.encode(newPassword);
             user.setPassword(encryptedPassword);
             oauthRepository.save(user);
+            readYourWrites.recordWrite(username);
             return true;
         }
         return false;
@@ -1,5 +1,7 @@
 package com.example.BookmarkApp;
 
+import org.hibernate.annotations.NaturalId;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -9,11 +11,15 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "oauth_users")
+// Not in the second-level cache: that cache is per instance, and a plan change or password
+// reset made on one instance must be seen by the others at once
 public class OauthUser {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Never changes after signup; findByUsername loads by it
+    @NaturalId
     @Column(unique = true, length = 100)
     private String username;
     
@@ -26,6 +32,10 @@ public class OauthUser {
     @Column(length = 20)
     private String plan = "Free"; // subscription plan
 
+    // Stripe time (epoch seconds) of the webhook event that last set the plan; older events are ignored
+    @Column(name = "plan_event_created")
+    private Long planEventCreated;
+
     // --- constructors ------------------------------------------------------
     public OauthUser() {
     }
@@ -76,4 +86,8 @@ public class OauthUser {
     public void setPlan(String plan) {
         this.plan = plan;
     }
+
+    public Long getPlanEventCreated() {
+        return planEventCreated;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.BookmarkApp;
+
+import java.time.Duration;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks the BCrypt cost for this machine: the highest cost whose hash still fits in
+ * the target verification time. Each cost step doubles the work, so one timed run
+ * at the base cost is enough to extrapolate.
+ */
+final class PasswordEncoderCalibration {
+    // BCryptPasswordEncoder's default; never go below what existing hashes already use
+    static final int MIN_BCRYPT_STRENGTH = 10;
+    static final int MAX_BCRYPT_STRENGTH = 16;
+
+    private PasswordEncoderCalibration() {
+    }
+
+    static int bcryptStrengthFor(Duration targetVerifyTime) {
+        String salt = BCrypt.gensalt(MIN_BCRYPT_STRENGTH);
+        BCrypt.hashpw("calibration-warmup", salt);
+        // Best of three, so a GC pause or a busy neighbour does not lower the cost
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        int strength = strengthFor(targetVerifyTime.toNanos(), bestNanos);
+        System.out.println("BCrypt calibration: cost " + MIN_BCRYPT_STRENGTH + " took " + bestNanos / 1_000_000
+                + " ms, using cost " + strength + " for a " + targetVerifyTime.toMillis() + " ms target");
+        return strength;
+    }
+
+    // Highest cost with baseNanos * 2^(cost - MIN) <= targetNanos, clamped to [MIN, MAX]
+    static int strengthFor(long targetNanos, long baseNanos) {
+        int strength = MIN_BCRYPT_STRENGTH;
+        long nanos = Math.max(1, baseNanos);
+        while (strength < MAX_BCRYPT_STRENGTH && nanos * 2 <= targetNanos) {
+            nanos *= 2;
+            strength++;
+        }
+        return strength;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.BookmarkApp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind for password hash upgrades. A login whose stored hash is plain text,
+ * unversioned or below the calibrated cost only queues the upgrade; a single background
+ * thread computes the new hashes and saves them in one transaction per batch, so the
+ * login itself never waits on a second hash or a second database write.
+ * An upgrade is skipped if the stored hash changed in the meantime (e.g. a password reset),
+ * and dropped when the queue is full - the next login simply queues it again.
+ */
+@Component
+public class PasswordRehashWriter {
+    private static final int BATCH_SIZE = 50;
+
+    private final OauthRepository oauthRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadYourWritesTracker readYourWrites;
+    private final BlockingQueue<Rehash> queue;
+    // Usernames already queued, so repeated logins do not hash the same password twice
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Thread worker;
+
+    // The raw password is held only until its new hash is computed
+    private record Rehash(String username, String storedHash, String rawPassword) {
+    }
+
+    public PasswordRehashWriter(OauthRepository oauthRepository, PasswordEncoder passwordEncoder,
+                                PlatformTransactionManager transactionManager, ReadYourWritesTracker readYourWrites,
+                                @Value("${app.login.rehash.queue-capacity:1000}") int queueCapacity) {
+        this.oauthRepository = oauthRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readYourWrites = readYourWrites;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.worker = new Thread(this::run, "password-rehash");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queue an upgrade of username's stored hash to the current encoding.
+     * Returns immediately; false if it was already queued or the queue is full.
+     */
+    public boolean schedule(String username, String storedHash, String rawPassword) {
+        if (!pending.add(username)) {
+            return false;
+        }
+        if (!queue.offer(new Rehash(username, storedHash, rawPassword))) {
+            pending.remove(username);
+            return false;
+        }
+        return true;
+    }
+
+    private void run() {
+        List<Rehash> batch = new ArrayList<>(BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                System.out.println("Password rehash batch failed: " + e);
+            } finally {
+                batch.forEach(rehash -> pending.remove(rehash.username()));
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Rehash> batch) {
+        // Hash outside the transaction; BCrypt at the target cost is the slow part
+        List<String> newHashes = new ArrayList<>(batch.size());
+        for (Rehash rehash : batch) {
+            newHashes.add(passwordEncoder.encode(rehash.rawPassword()));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < batch.size(); i++) {
+                Rehash rehash = batch.get(i);
+                String newHash = newHashes.get(i);
+                oauthRepository.findByUsername(rehash.username())
+                        .filter(user -> rehash.storedHash().equals(user.getPassword()))
+                        .ifPresent(user -> {
+                            user.setPassword(newHash);
+                            readYourWrites.recordWrite(user.getUsername());
+                        });
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.interrupt();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.BookmarkApp;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs password hash checks (BCrypt, ~100 ms of CPU each) on a small dedicated
+ * pool instead of the request thread, so a login burst only slows logins down.
+ * Admission control rejects immediately, rather than queueing without bound, when
+ * the queue is full or a user or client address already has too many checks in flight.
+ */
+@Component
+public class PasswordVerificationExecutor {
+    private final ThreadPoolExecutor executor;
+    private final int maxPerUser;
+    private final int maxPerAddress;
+    private final Map<String, AtomicInteger> inFlightByUser = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlightByAddress = new ConcurrentHashMap<>();
+
+    public PasswordVerificationExecutor(@Value("${app.login.verification.core-fraction:0.25}") double coreFraction,
+                                        @Value("${app.login.verification.queue-capacity:64}") int queueCapacity,
+                                        @Value("${app.login.verification.max-per-user:2}") int maxPerUser,
+                                        @Value("${app.login.verification.max-per-address:8}") int maxPerAddress) {
+        int threads = Math.max(1, (int) (Runtime.getRuntime().availableProcessors() * coreFraction));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.maxPerUser = maxPerUser;
+        this.maxPerAddress = maxPerAddress;
+    }
+
+    /**
+     * Run check on the verification pool. The future fails with RejectedExecutionException,
+     * without running check, when the pool is saturated or a per-user/per-address limit is hit.
+     */
+    public <T> CompletableFuture<T> submit(String username, String clientAddress, Supplier<T> check) {
+        String userKey = username != null ? username : "";
+        String addressKey = clientAddress != null ? clientAddress : "unknown";
+        if (!tryAcquire(inFlightByUser, userKey, maxPerUser)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many logins in progress for this user"));
+        }
+        if (!tryAcquire(inFlightByAddress, addressKey, maxPerAddress)) {
+            release(inFlightByUser, userKey);
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many logins in progress from this address"));
+        }
+        try {
+            return CompletableFuture.supplyAsync(check, executor)
+                    .whenComplete((result, error) -> {
+                        release(inFlightByUser, userKey);
+                        release(inFlightByAddress, addressKey);
+                    });
+        } catch (RejectedExecutionException e) {
+            release(inFlightByUser, userKey);
+            release(inFlightByAddress, addressKey);
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Login service is busy"));
+        }
+    }
+
+    private static boolean tryAcquire(Map<String, AtomicInteger> inFlight, String key, int limit) {
+        boolean[] acquired = {false};
+        inFlight.compute(key, (k, count) -> {
+            AtomicInteger current = count != null ? count : new AtomicInteger();
+            if (current.get() < limit) {
+                current.incrementAndGet();
+                acquired[0] = true;
+            }
+            return current.get() == 0 ? null : current;
+        });
+        return acquired[0];
+    }
+
+    private static void release(Map<String, AtomicInteger> inFlight, String key) {
+        inFlight.computeIfPresent(key, (k, count) -> count.decrementAndGet() == 0 ? null : count);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -10,6 +10,7 @@ import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
 import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
@@ -26,12 +27,12 @@ import com.vaadin.flow.spring.annotation.UIScope;
 public class PaymentPlanScreen extends VerticalLayout {
 
     private final OauthService oauthService;
-    private final StripeService stripeService;
+    private final CheckoutSessionService checkoutSessionService;
 
     @Autowired
-    public PaymentPlanScreen(OauthService oauthService, StripeService stripeService) {
+    public PaymentPlanScreen(OauthService oauthService, CheckoutSessionService checkoutSessionService) {
         this.oauthService = oauthService;
-        this.stripeService = stripeService;
+        this.checkoutSessionService = checkoutSessionService;
         styleView();
         buildUI();
     }
@@ -201,24 +202,7 @@ public class PaymentPlanScreen extends VerticalLayout {
                 }
                 UI.getCurrent().navigate("mainscreen");
             } else {
-                try {
-                    // Use custom checkout session with proper redirect URLs
-                    String baseUrl = VaadinRequest.getCurrent().getContextPath().isEmpty() ? 
-                        "http://localhost:8080" : VaadinRequest.getCurrent().getContextPath();
-                    
-                    // Get the actual user's email from the database
-                    String customerEmail = oauthService.getEmailForUser(username);
-                    if (customerEmail == null) {
-                        customerEmail = username + "@example.com"; // Fallback if email not found
-                    }
-                    
-                    String checkoutUrl = stripeService.createCheckoutSession(name, customerEmail, baseUrl, username);
-                    getUI().ifPresent(ui -> ui.getPage().setLocation(checkoutUrl));
-                } catch (Exception ex) {
-                    // Fallback to payment links if custom session creation fails
-                    String paymentLink = stripeService.getPaymentLink(name);
-                    getUI().ifPresent(ui -> ui.getPage().setLocation(paymentLink));
-                }
+                startCheckout(choose, name, username);
             }
         });
 
@@ -247,6 +231,38 @@ public class PaymentPlanScreen extends VerticalLayout {
         return card;
     }
 
+    // Checkout session creation runs on CheckoutSessionService's pool; the redirect is pushed
+    // when it completes, so the click returns at once and the session lock is not held
+    private void startCheckout(Button choose, String name, String username) {
+        UI ui = UI.getCurrent();
+        choose.setEnabled(false);
+        String originalText = choose.getText();
+        choose.setText("Preparing checkout...");
+
+        // Use custom checkout session with proper redirect URLs
+        String baseUrl = VaadinRequest.getCurrent().getContextPath().isEmpty() ? 
+            "http://localhost:8080" : VaadinRequest.getCurrent().getContextPath();
+        
+        // Get the actual user's email from the database
+        String email = oauthService.getEmailForUser(username);
+        String customerEmail = email != null ? email : username + "@example.com"; // Fallback if email not found
+
+        checkoutSessionService.startCheckout(name, customerEmail, baseUrl, username).whenComplete((redirect, error) ->
+            ui.access(() -> {
+                choose.setText(originalText);
+                choose.setEnabled(true);
+                if (error != null) {
+                    System.err.println("Checkout session for " + username + " failed: " + error);
+                    Notification.show("Checkout could not be started, please try again", 5000, Notification.Position.MIDDLE);
+                    return;
+                }
+                if (redirect.fallback()) {
+                    Notification.show("Redirecting to the Stripe payment page", 3000, Notification.Position.MIDDLE);
+                }
+                ui.getPage().setLocation(redirect.url());
+            }));
+    }
+
     private String hexToRgb(String hex) {
         // Convert hex color to RGB values for rgba usage
         if (hex.equals("#38a169")) return "56, 161, 105";
@@ -0,0 +1,191 @@
+package com.example.BookmarkApp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The payment-success page, rendered once at startup. Both representations (identity and
+ * gzip at maximum compression) are kept as ready-to-send byte arrays with strong,
+ * content-hash ETags, so a request only picks one and writes it.
+ */
+@Component
+public class PaymentSuccessPage {
+
+    /** One encoding of the page: the exact bytes to send and their headers. */
+    public record Representation(byte[] body, String contentEncoding, String etag) {
+    }
+
+    // Revalidate every time: the URL also applies the plan update, so the request must reach us,
+    // but an unchanged page comes back as a bodiless 304
+    public static final String CACHE_CONTROL = "private, no-cache";
+
+    private final Representation identity;
+    private final Representation gzip;
+
+    public PaymentSuccessPage() {
+        byte[] html = render().getBytes(StandardCharsets.UTF_8);
+        String hash = contentHash(html);
+        this.identity = new Representation(html, null, "\"" + hash + "\"");
+        // Each encoding is its own representation, so its strong ETag must differ
+        this.gzip = new Representation(gzip(html), "gzip", "\"" + hash + "-gz\"");
+    }
+
+    /** The representation to send for this Accept-Encoding header. */
+    public Representation select(String acceptEncoding) {
+        return acceptsGzip(acceptEncoding) ? gzip : identity;
+    }
+
+    // True if If-None-Match names this representation (or is *)
+    public static boolean matches(String ifNoneMatch, Representation representation) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(representation.etag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] coding = part.trim().split(";");
+            String name = coding[0].trim().toLowerCase();
+            if (name.equals("gzip") || name.equals("*")) {
+                for (int i = 1; i < coding.length; i++) {
+                    String parameter = coding[i].trim().replace(" ", "");
+                    if (parameter.equals("q=0") || parameter.matches("q=0\\.0*")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String render() {
+        return "<!DOCTYPE html>" +
+            "<html lang='en'>" +
+            "<head>" +
+            "    <meta charset='UTF-8'>" +
+            "    <meta name='viewport' content='width=device-width, initial-scale=1.0'>" +
+            "    <title>Payment Successful - BookmarkApp</title>" +
+            "    <style>" +
+            "        body {" +
+            "            font-family: 'Inter', -apple-system, BlinkMacSystemFont, 'Segoe UI', sans-serif;" +
+            "            background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);" +
+            "            margin: 0;" +
+            "            padding: 40px 20px;" +
+            "            min-height: 100vh;" +
+            "            display: flex;" +
+            "            align-items: center;" +
+            "            justify-content: center;" +
+            "        }" +
+            "        .success-container {" +
+            "            background: linear-gradient(145deg, rgba(255,255,255,0.95) 0%, rgba(255,255,255,0.85) 100%);" +
+            "            border-radius: 24px;" +
+            "            box-shadow: 0 20px 60px rgba(0,0,0,0.15), 0 8px 25px rgba(0,0,0,0.1);" +
+            "            padding: 48px 40px;" +
+            "            max-width: 480px;" +
+            "            text-align: center;" +
+            "            border: 1px solid rgba(255,255,255,0.3);" +
+            "            backdrop-filter: blur(20px);" +
+            "        }" +
+            "        .success-icon {" +
+            "            font-size: 64px;" +
+            "            margin-bottom: 24px;" +
+            "        }" +
+            "        .success-title {" +
+            "            color: #1a202c;" +
+            "            font-size: 32px;" +
+            "            font-weight: 800;" +
+            "            margin: 0 0 16px 0;" +
+            "            letter-spacing: -0.5px;" +
+            "        }" +
+            "        .success-message {" +
+            "            color: #4a5568;" +
+            "            font-size: 18px;" +
+            "            margin-bottom: 32px;" +
+            "            line-height: 1.6;" +
+            "        }" +
+            "        .continue-btn {" +
+            "            background: linear-gradient(135deg, #38a169 0%, #2f855a 100%);" +
+            "            color: white;" +
+            "            border: none;" +
+            "            border-radius: 12px;" +
+            "            font-weight: 600;" +
+            "            font-size: 16px;" +
+            "            padding: 16px 32px;" +
+            "            cursor: pointer;" +
+            "            text-decoration: none;" +
+            "            display: inline-block;" +
+            "            transition: all 0.3s ease;" +
+            "            box-shadow: 0 8px 25px rgba(56, 161, 105, 0.4);" +
+            "        }" +
+            "        .continue-btn:hover {" +
+            "            transform: translateY(-2px);" +
+            "            box-shadow: 0 12px 35px rgba(56, 161, 105, 0.5);" +
+            "        }" +
+            "    </style>" +
+            "</head>" +
+            "<body>" +
+            "    <div class='success-container'>" +
+            "        <div class='success-icon'>🎉</div>" +
+            "        <h1 class='success-title'>Payment Successful!</h1>" +
+            "        <p class='success-message'>" +
+            "            Thank you for your payment! Your subscription has been activated." +
+            "            <br>You can now enjoy all the premium features." +
+            "        </p>" +
+            "        <a href='/mainscreen' class='continue-btn'>Continue to Dashboard</a>" +
+            "    </div>" +
+            // Auto-redirect after 5 seconds (no JS line comment: the page is one line)
+            "    <script>" +
+            "        setTimeout(function() {" +
+            "            window.location.href = '/mainscreen';" +
+            "        }, 5000);" +
+            "    </script>" +
+            "</body>" +
+            "</html>";
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String contentHash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.BookmarkApp;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Delivers plan changes to the open UIs of the affected user only. Listeners are
+ * called off the caller's thread and are expected to hop onto their UI with
+ * {@code ui.access(...)}; the change then reaches the browser through server push.
+ */
+@Component
+public class PlanChangeBroadcaster {
+    private final Executor executor = Executors.newSingleThreadExecutor();
+    private final Map<String, Set<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    public Registration register(String username, Consumer<String> listener) {
+        listeners.computeIfAbsent(username, key -> ConcurrentHashMap.newKeySet()).add(listener);
+        return () -> listeners.computeIfPresent(username, (key, userListeners) -> {
+            userListeners.remove(listener);
+            return userListeners.isEmpty() ? null : userListeners;
+        });
+    }
+
+    public void broadcast(String username, String newPlan) {
+        Set<Consumer<String>> userListeners = listeners.get(username);
+        if (userListeners == null) {
+            return;
+        }
+        for (Consumer<String> listener : userListeners) {
+            executor.execute(() -> listener.accept(newPlan));
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.BookmarkApp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of every public bookmark, kept in grid order (favorites first,
+ * then by id) overall and per owner. Saves and deletes are applied in place in
+ * O(log n), and readers always get their own Bookmark copies, so the shared state
+ * can never be modified through the grid.
+ * Only serves queries whose cost does not grow with the number of public bookmarks:
+ * the unfiltered feed (a seek into the ordered map), one owner's feed, and any
+ * plan-capped feed, which reads only the rows of its first maxOwners owners.
+ * Uncapped name, category, tag and owner searches and full-text queries go to the
+ * indexed queries in BookmarkRepositoryImpl.
+ */
+final class PublicFeedSnapshot {
+    private static final Comparator<BookmarkKey> FEED_ORDER = Comparator
+            .comparing((BookmarkKey key) -> !key.favorite())
+            .thenComparingLong(BookmarkKey::id);
+    // Same order on rows, without allocating a key per comparison
+    private static final Comparator<Bookmark> ROW_ORDER = Comparator
+            .comparing((Bookmark row) -> !row.isFavorite())
+            .thenComparingLong(Bookmark::getId);
+
+    private final ConcurrentSkipListMap<BookmarkKey, Bookmark> feed;
+    // public owner -> that owner's bookmarks in feed order; key order is the owner cap order
+    private final ConcurrentSkipListMap<String, ConcurrentSkipListMap<BookmarkKey, Bookmark>> owners;
+    private final Map<Long, BookmarkKey> keys;
+    private final AtomicInteger size;
+    // Rows of the first maxOwners owners, per cap; rebuilt on first read after a change
+    private final Map<Integer, CappedView> cappedViews = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile long loadedAt = System.nanoTime();
+
+    private record CappedView(long version, List<Bookmark> rows) {
+    }
+
+    private PublicFeedSnapshot(List<Bookmark> sortedRows) {
+        keys = new ConcurrentHashMap<>(sortedRows.size() * 4 / 3 + 1);
+        TreeMap<String, List<Bookmark>> rowsByOwner = new TreeMap<>();
+        for (Bookmark row : sortedRows) {
+            keys.put(row.getId(), BookmarkKey.of(row));
+            rowsByOwner.computeIfAbsent(row.getUsername(), owner -> new ArrayList<>()).add(row);
+        }
+        TreeMap<String, ConcurrentSkipListMap<BookmarkKey, Bookmark>> ownerMaps = new TreeMap<>();
+        rowsByOwner.forEach((owner, rows) -> ownerMaps.put(owner, feedOrdered(rows, keys)));
+        feed = feedOrdered(sortedRows, keys);
+        owners = new ConcurrentSkipListMap<>(ownerMaps);
+        size = new AtomicInteger(sortedRows.size());
+    }
+
+    static PublicFeedSnapshot of(Collection<Bookmark> publicBookmarks) {
+        List<Bookmark> rows = new ArrayList<>(publicBookmarks.size());
+        for (Bookmark bookmark : publicBookmarks) {
+            if (bookmark.isPublic() && bookmark.getUsername() != null) {
+                rows.add(copyOf(bookmark));
+            }
+        }
+        // Sorted once, so the owner grouping keeps feed order and the maps fill tail-first
+        rows.sort(ROW_ORDER);
+        return new PublicFeedSnapshot(rows);
+    }
+
+    static boolean supports(BookmarkFilter filter) {
+        if (!filter.isPublicFeed() || filter.getFullText() != null) {
+            return false;
+        }
+        boolean bounded = filter.getMaxPublicOwners() >= 0 || filter.getPublicOwner() != null;
+        return bounded || (filter.getPublicOwnerContains() == null && filter.getNameContains() == null
+                && filter.getCategory() == null && filter.getTags().isEmpty());
+    }
+
+    boolean isOlderThan(long maxAgeNanos) {
+        return System.nanoTime() - loadedAt > maxAgeNanos;
+    }
+
+    // Same contents, but due for revalidation on the next read
+    void markStale() {
+        loadedAt = Long.MIN_VALUE / 2;
+    }
+
+    // A bookmark was saved: kept if public, dropped otherwise
+    synchronized void apply(Bookmark bookmark) {
+        removeRow(bookmark.getId());
+        if (bookmark.isPublic() && bookmark.getUsername() != null) {
+            Bookmark copy = copyOf(bookmark);
+            BookmarkKey key = BookmarkKey.of(copy);
+            feed.put(key, copy);
+            owners.computeIfAbsent(copy.getUsername(), owner -> new ConcurrentSkipListMap<>(FEED_ORDER)).put(key, copy);
+            keys.put(copy.getId(), key);
+            size.incrementAndGet();
+        }
+        // After the change, so a view tagged with a version already contains every change up to it
+        version.incrementAndGet();
+    }
+
+    synchronized void remove(Long id) {
+        if (removeRow(id)) {
+            version.incrementAndGet();
+        }
+    }
+
+    private boolean removeRow(Long id) {
+        BookmarkKey key = id == null ? null : keys.remove(id);
+        if (key == null) {
+            return false;
+        }
+        Bookmark existing = feed.remove(key);
+        ConcurrentSkipListMap<BookmarkKey, Bookmark> ownerRows = owners.get(existing.getUsername());
+        ownerRows.remove(key);
+        if (ownerRows.isEmpty()) {
+            owners.remove(existing.getUsername());
+        }
+        size.decrementAndGet();
+        return true;
+    }
+
+    // Rows after the seek key, or from offset when there is none (same contract as BookmarkRepositoryImpl.findPage)
+    List<Bookmark> page(BookmarkFilter filter, BookmarkKey after, int offset, int limit) {
+        List<Bookmark> page = new ArrayList<>(Math.min(limit, 256));
+        int skip = after == null ? offset : 0;
+        for (Bookmark bookmark : candidates(filter, after)) {
+            if (page.size() >= limit) {
+                break;
+            }
+            if (matches(bookmark, filter) && skip-- <= 0) {
+                page.add(copyOf(bookmark));
+            }
+        }
+        return page;
+    }
+
+    long count(BookmarkFilter filter) {
+        // Running counts for the unfiltered feed and the cached capped views
+        if (!hasRowPredicates(filter) && filter.getPublicOwner() == null && filter.getPublicOwnerContains() == null) {
+            return filter.getMaxPublicOwners() < 0 ? size.get() : cappedView(filter.getMaxPublicOwners()).rows().size();
+        }
+        long count = 0;
+        for (Bookmark bookmark : candidates(filter, null)) {
+            if (matches(bookmark, filter)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // The rows a filter can match, in feed order; bounded by the owner cap or the single owner when there is one
+    private Collection<Bookmark> candidates(BookmarkFilter filter, BookmarkKey after) {
+        if (filter.getPublicOwner() != null) {
+            boolean allowed = filter.getMaxPublicOwners() < 0 ? ownerMatches(filter.getPublicOwner(), filter)
+                    : allowedOwners(filter).contains(filter.getPublicOwner());
+            ConcurrentSkipListMap<BookmarkKey, Bookmark> ownerRows = owners.get(filter.getPublicOwner());
+            if (!allowed || ownerRows == null) {
+                return List.of();
+            }
+            return after == null ? ownerRows.values() : ownerRows.tailMap(after, false).values();
+        }
+        if (filter.getMaxPublicOwners() >= 0) {
+            List<Bookmark> rows = filter.getPublicOwnerContains() == null
+                    ? cappedView(filter.getMaxPublicOwners()).rows()
+                    : rowsOf(allowedOwners(filter));
+            return after == null ? rows : rows.subList(firstAfter(rows, after), rows.size());
+        }
+        if (filter.getPublicOwnerContains() != null) {
+            return feed.values().stream().filter(b -> ownerMatches(b.getUsername(), filter)).toList();
+        }
+        return after == null ? feed.values() : feed.tailMap(after, false).values();
+    }
+
+    private CappedView cappedView(int maxOwners) {
+        long current = version.get();
+        CappedView view = cappedViews.get(maxOwners);
+        if (view == null || view.version() != current) {
+            List<String> firstOwners = new ArrayList<>(maxOwners);
+            for (String owner : owners.keySet()) {
+                if (firstOwners.size() >= maxOwners) {
+                    break;
+                }
+                firstOwners.add(owner);
+            }
+            view = new CappedView(current, rowsOf(firstOwners));
+            cappedViews.put(maxOwners, view);
+        }
+        return view;
+    }
+
+    // Mirrors the owner cap in BookmarkRepositoryImpl: the first maxOwners matching owners by username
+    private List<String> allowedOwners(BookmarkFilter filter) {
+        List<String> allowed = new ArrayList<>();
+        for (String owner : owners.keySet()) {
+            if (allowed.size() >= filter.getMaxPublicOwners()) {
+                break;
+            }
+            if (ownerMatches(owner, filter)) {
+                allowed.add(owner);
+            }
+        }
+        return allowed;
+    }
+
+    private List<Bookmark> rowsOf(List<String> selectedOwners) {
+        List<Bookmark> rows = new ArrayList<>();
+        for (String owner : selectedOwners) {
+            ConcurrentSkipListMap<BookmarkKey, Bookmark> ownerRows = owners.get(owner);
+            if (ownerRows != null) {
+                rows.addAll(ownerRows.values());
+            }
+        }
+        rows.sort(ROW_ORDER);
+        return rows;
+    }
+
+    // Index of the first row after the seek key in a feed-ordered list
+    private static int firstAfter(List<Bookmark> rows, BookmarkKey after) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (FEED_ORDER.compare(BookmarkKey.of(rows.get(mid)), after) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Rows are already in feed order, so every put lands at the tail of the map
+    private static ConcurrentSkipListMap<BookmarkKey, Bookmark> feedOrdered(List<Bookmark> sortedRows,
+                                                                           Map<Long, BookmarkKey> keys) {
+        ConcurrentSkipListMap<BookmarkKey, Bookmark> map = new ConcurrentSkipListMap<>(FEED_ORDER);
+        for (Bookmark row : sortedRows) {
+            map.put(keys.get(row.getId()), row);
+        }
+        return map;
+    }
+
+    private static boolean hasRowPredicates(BookmarkFilter filter) {
+        return filter.getNameContains() != null || filter.getCategory() != null || !filter.getTags().isEmpty();
+    }
+
+    private static boolean ownerMatches(String owner, BookmarkFilter filter) {
+        return filter.getPublicOwnerContains() == null
+                || owner.toLowerCase().contains(filter.getPublicOwnerContains().toLowerCase());
+    }
+
+    private static boolean matches(Bookmark bookmark, BookmarkFilter filter) {
+        if (filter.getNameContains() != null && (bookmark.getDisplayName() == null
+                || !bookmark.getDisplayName().toLowerCase().contains(filter.getNameContains().toLowerCase()))) {
+            return false;
+        }
+        if (filter.getCategory() != null && !filter.getCategory().equalsIgnoreCase(bookmark.getCategory())) {
+            return false;
+        }
+        return bookmark.getTags().containsAll(filter.getTags());
+    }
+
+    private static Bookmark copyOf(Bookmark bookmark) {
+        Bookmark copy = new Bookmark(bookmark.getUrl(), bookmark.getDisplayName(), bookmark.getTagsInput(),
+                null, null, bookmark.getCategory(), bookmark.getUsername());
+        copy.setId(bookmark.getId());
+        copy.setFavorite(bookmark.isFavorite());
+        copy.setVisibility(bookmark.getVisibility());
+        copy.setTags(new HashSet<>(bookmark.getTags()));
+        return copy;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.BookmarkApp;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * Read-your-writes for replica routing: a user who just saved something reads
+ * from the primary until the replica is guaranteed to have caught up. The window
+ * is never shorter than the maximum replica lag the router tolerates.
+ * Used by {@link ReplicaRoutingDataSource}; harmless when no replica is configured.
+ */
+@Component
+public class ReadYourWritesTracker {
+    private static final Object READER_KEY = new Object();
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long stickyNanos;
+    // username -> System.nanoTime() until which that user's reads stay on the primary
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(@Value("${app.replica.sticky-window:5s}") Duration stickyWindow,
+                                 @Value("${app.replica.max-lag:2s}") Duration maxLag) {
+        this.stickyNanos = (stickyWindow.compareTo(maxLag) >= 0 ? stickyWindow : maxLag).toNanos();
+    }
+
+    public void recordWrite(String username) {
+        if (username == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (stickyUntil.size() > CLEANUP_THRESHOLD) {
+            stickyUntil.values().removeIf(until -> until - now < 0);
+        }
+        stickyUntil.put(username, now + stickyNanos);
+    }
+
+    /**
+     * Route the current transaction by the given user's recent writes. For reads that
+     * name the user explicitly (plan lookups, exports) rather than through the UI session.
+     */
+    public void bindReader(String username) {
+        if (username == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(READER_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(READER_KEY, username);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(READER_KEY);
+            }
+        });
+    }
+
+    boolean currentReaderMustUsePrimary() {
+        String reader = currentReader();
+        if (reader == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(reader);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() < 0) {
+            stickyUntil.remove(reader, until);
+            return false;
+        }
+        return true;
+    }
+
+    private String currentReader() {
+        Object bound = TransactionSynchronizationManager.getResource(READER_KEY);
+        if (bound != null) {
+            return (String) bound;
+        }
+        VaadinSession session = VaadinSession.getCurrent();
+        if (session != null && session.hasLock()) {
+            return (String) session.getAttribute("username");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.BookmarkApp;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+/**
+ * Polls the replica's replay lag. While it is unreachable or further behind than
+ * maxLag, {@link ReplicaRoutingDataSource} sends read-only work to the primary.
+ * A standby that has replayed everything it received counts as zero lag, so an
+ * idle primary does not make the replica look stale.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource replica;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    }
+
+    public void start(Duration interval) {
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            try (ResultSet result = statement.executeQuery(LAG_QUERY)) {
+                result.next();
+                update(result.getDouble(1));
+            }
+        } catch (Exception e) {
+            if (replicaUsable) {
+                System.out.println("Replica unreachable, reading from primary: " + e.getMessage());
+            }
+            update(null);
+        }
+    }
+
+    // null lag means the probe failed
+    void update(Double lagSeconds) {
+        boolean usable = lagSeconds != null && lagSeconds <= maxLagSeconds;
+        if (usable != replicaUsable && lagSeconds != null) {
+            System.out.println(usable
+                    ? "Replica caught up (lag " + lagSeconds + "s), routing reads to it"
+                    : "Replica lag " + lagSeconds + "s over " + maxLagSeconds + "s, reading from primary");
+        }
+        replicaUsable = usable;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.BookmarkApp;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to the replica and everything
+ * else to the primary. Falls back to the primary while the replica lags (see
+ * {@link ReplicaLagMonitor}) and for users who have just written (see
+ * {@link ReadYourWritesTracker}).
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only known
+ * once the transaction has started, after JPA has asked for its connection handle.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !lagMonitor.isReplicaUsable()
+                || readYourWrites.currentReaderMustUsePrimary()) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.BookmarkApp;
+
+import java.util.List;
+
+/**
+ * A versioned set of SQL statements that Hibernate's ddl-auto cannot express
+ * (extensions, expression/GIN/partial indexes, data backfills).
+ */
+public record SchemaMigration(int version, String description, List<String> statements) {
+
+    public static SchemaMigration of(int version, String description, String... statements) {
+        return new SchemaMigration(version, description, List.of(statements));
+    }
+}
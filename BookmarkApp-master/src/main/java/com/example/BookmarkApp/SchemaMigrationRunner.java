@@ -0,0 +1,150 @@
+package com.example.BookmarkApp;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs each {@link SchemaMigration} once, after Hibernate has created/updated the
+ * tables, and records it in schema_migrations so later boots skip it. Each migration
+ * runs in its own transaction under an advisory lock, so instances booting together
+ * apply it exactly once. Runs once all singletons exist but before the context starts
+ * the web server, so no request is served against a schema that is still migrating.
+ * Migrations must also suit the previous release, which keeps serving during a rolling
+ * deploy: a column it uses is only dropped in a release after the one that stops using it.
+ */
+@Component
+public class SchemaMigrationRunner implements SmartInitializingSingleton {
+
+    private static final List<SchemaMigration> MIGRATIONS = List.of(
+        SchemaMigration.of(1, "Search indexes for bookmark name and category filters",
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_bookmarks_display_name_trgm ON bookmarks USING gin (LOWER(display_name) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_bookmarks_username_category ON bookmarks (username, LOWER(category))"),
+        SchemaMigration.of(2, "Backfill bookmark_tags from existing tags_input strings",
+            "INSERT INTO bookmark_tags (bookmark_id, tag) "
+                + "SELECT DISTINCT b.id, LEFT(LOWER(TRIM(t.tag)), 100) FROM bookmarks b "
+                + "CROSS JOIN LATERAL unnest(string_to_array(b.tags_input, ',')) AS t(tag) "
+                + "WHERE TRIM(t.tag) <> '' "
+                + "ON CONFLICT DO NOTHING"),
+        SchemaMigration.of(3, "Full-text search vector over bookmark name, tags and URL",
+            "ALTER TABLE bookmarks ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS ("
+                + "setweight(to_tsvector('simple', COALESCE(display_name, '')), 'A') || "
+                + "setweight(to_tsvector('simple', COALESCE(tags_input, '')), 'B') || "
+                + "setweight(to_tsvector('simple', regexp_replace(COALESCE(url, ''), '[^[:alnum:]]+', ' ', 'g')), 'C')"
+                + ") STORED",
+            "CREATE INDEX IF NOT EXISTS idx_bookmarks_search_vector ON bookmarks USING gin (search_vector)"),
+        // Databases created before migration 7 got this index on the old security_option column;
+        // migration 7 renames that one and creates it in this form
+        SchemaMigration.of(4, "Partial index over public bookmark owners for the plan-capped feed",
+            "CREATE INDEX IF NOT EXISTS idx_bookmarks_public_username ON bookmarks (username, favorite DESC, id) WHERE is_public"),
+        SchemaMigration.of(5, "Assign bookmarks without an owner to the admin user",
+            "UPDATE bookmarks SET username = 'admin' WHERE username IS NULL OR username = 'unknown'"),
+        // The previous release still inserts without an id during a rolling deploy, so the column
+        // default moves to bookmark_id_seq as well: its inserts then take a whole block each and can
+        // never collide with the blocks Hibernate allocates. The table lock keeps them from taking
+        // an identity value between reading the counter and the switch
+        SchemaMigration.of(6, "Draw bookmark ids from bookmark_id_seq instead of the old identity column",
+            "DO $$ DECLARE old_sequence text; issued bigint; BEGIN "
+                + "LOCK TABLE bookmarks IN ACCESS EXCLUSIVE MODE; "
+                + "SELECT COALESCE(MAX(id), 0) INTO issued FROM bookmarks; "
+                + "old_sequence := pg_get_serial_sequence('bookmarks', 'id'); "
+                + "IF old_sequence IS NOT NULL THEN "
+                + "EXECUTE 'SELECT GREATEST(last_value, ' || issued || ') FROM ' || old_sequence INTO issued; "
+                + "END IF; "
+                + "PERFORM setval('bookmark_id_seq', issued + 50); "
+                + "ALTER TABLE bookmarks ALTER COLUMN id DROP IDENTITY IF EXISTS; "
+                + "ALTER TABLE bookmarks ALTER COLUMN id SET DEFAULT nextval('bookmark_id_seq'); "
+                + "END $$"),
+        // Backfill only: instances of the previous release still read and write favorite_option
+        // and security_option during the rollout, so a trigger keeps the strings and the booleans
+        // in step (whichever side a statement changed wins) and the old form of
+        // idx_bookmarks_public_username stays, renamed, for their feed query. A later release
+        // drops the trigger, its function, the legacy index and the two columns
+        SchemaMigration.of(7, "Move favorite/visibility strings to boolean columns",
+            "DO $$ BEGIN "
+                + "IF EXISTS (SELECT 1 FROM information_schema.columns "
+                + "WHERE table_name = 'bookmarks' AND column_name = 'security_option') THEN "
+                + "UPDATE bookmarks SET favorite = COALESCE(favorite_option = 'Yes', false), "
+                + "is_public = COALESCE(security_option = 'Public', false); "
+                + "IF EXISTS (SELECT 1 FROM pg_indexes WHERE indexname = 'idx_bookmarks_public_username' "
+                + "AND indexdef LIKE '%security_option%') THEN "
+                + "ALTER INDEX idx_bookmarks_public_username RENAME TO idx_bookmarks_public_username_legacy; "
+                + "END IF; "
+                + "CREATE OR REPLACE FUNCTION bookmarks_sync_legacy_options() RETURNS trigger AS $f$ BEGIN "
+                + "IF TG_OP = 'INSERT' THEN "
+                + "IF NEW.security_option IS NOT NULL THEN NEW.is_public := NEW.security_option = 'Public'; "
+                + "ELSE NEW.security_option := CASE WHEN NEW.is_public THEN 'Public' ELSE 'Private' END; END IF; "
+                + "IF NEW.favorite_option IS NOT NULL THEN NEW.favorite := NEW.favorite_option = 'Yes'; "
+                + "ELSE NEW.favorite_option := CASE WHEN NEW.favorite THEN 'Yes' ELSE 'No' END; END IF; "
+                + "ELSE "
+                + "IF NEW.security_option IS DISTINCT FROM OLD.security_option THEN "
+                + "NEW.is_public := COALESCE(NEW.security_option = 'Public', false); "
+                + "ELSIF NEW.is_public IS DISTINCT FROM OLD.is_public THEN "
+                + "NEW.security_option := CASE WHEN NEW.is_public THEN 'Public' ELSE 'Private' END; END IF; "
+                + "IF NEW.favorite_option IS DISTINCT FROM OLD.favorite_option THEN "
+                + "NEW.favorite := COALESCE(NEW.favorite_option = 'Yes', false); "
+                + "ELSIF NEW.favorite IS DISTINCT FROM OLD.favorite THEN "
+                + "NEW.favorite_option := CASE WHEN NEW.favorite THEN 'Yes' ELSE 'No' END; END IF; "
+                + "END IF; "
+                + "RETURN NEW; END $f$ LANGUAGE plpgsql; "
+                + "DROP TRIGGER IF EXISTS bookmarks_sync_legacy_options ON bookmarks; "
+                + "CREATE TRIGGER bookmarks_sync_legacy_options BEFORE INSERT OR UPDATE ON bookmarks "
+                + "FOR EACH ROW EXECUTE FUNCTION bookmarks_sync_legacy_options(); "
+                + "END IF; END $$",
+            "CREATE INDEX IF NOT EXISTS idx_bookmarks_public_username ON bookmarks (username, favorite DESC, id) WHERE is_public",
+            "CREATE INDEX IF NOT EXISTS idx_bookmarks_username_favorite_id ON bookmarks (username, favorite DESC, id)",
+            "DROP INDEX IF EXISTS idx_bookmarks_username_id"),
+        SchemaMigration.of(8, "Trigram indexes for username infix search",
+            "CREATE INDEX IF NOT EXISTS idx_oauth_users_username_trgm ON oauth_users USING gin (LOWER(username) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_bookmarks_public_username_trgm ON bookmarks USING gin (LOWER(username) gin_trgm_ops) WHERE is_public")
+    );
+
+    // Arbitrary application-wide key for pg_advisory_xact_lock
+    private static final long MIGRATION_LOCK_KEY = 7_270_451L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SchemaMigrationRunner(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migrations ("
+                + "version INTEGER PRIMARY KEY, "
+                + "description VARCHAR(255), "
+                + "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+
+        Set<Integer> applied = new HashSet<>(
+                jdbcTemplate.queryForList("SELECT version FROM schema_migrations", Integer.class));
+
+        for (SchemaMigration migration : MIGRATIONS) {
+            if (!applied.contains(migration.version())) {
+                transactionTemplate.executeWithoutResult(status -> apply(migration));
+            }
+        }
+    }
+
+    private void apply(SchemaMigration migration) {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + MIGRATION_LOCK_KEY + ")");
+        Integer done = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM schema_migrations WHERE version = ?", Integer.class, migration.version());
+        if (done != null && done > 0) {
+            return; // another instance got there first
+        }
+        for (String statement : migration.statements()) {
+            jdbcTemplate.execute(statement);
+        }
+        jdbcTemplate.update("INSERT INTO schema_migrations (version, description) VALUES (?, ?)",
+                migration.version(), migration.description());
+        System.out.println("Applied schema migration " + migration.version() + ": " + migration.description());
+    }
+}
@@ -1,20 +1,42 @@
 package com.example.BookmarkApp;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Versioned hashes: new passwords are stored as "{bcrypt}..." at the cost calibrated
+     * for this hardware (or the fixed app.login.password.bcrypt-strength), older versions
+     * still verify. Hashes from before versioning have no prefix and are plain BCrypt.
+     * upgradeEncoding() is true for anything not at the current version and cost, see
+     * PasswordRehashWriter.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.login.password.target-verify-time:100ms}") Duration targetVerifyTime,
+            @Value("${app.login.password.bcrypt-strength:0}") int fixedStrength) {
+        int strength = fixedStrength > 0 ? fixedStrength : PasswordEncoderCalibration.bcryptStrengthFor(targetVerifyTime);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(strength));
+        encoders.put("pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", encoders);
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 
     @Bean
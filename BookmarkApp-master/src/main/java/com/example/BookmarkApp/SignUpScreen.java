@@ -16,6 +16,8 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.EmailField;
 import com.vaadin.flow.component.textfield.PasswordField;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.textfield.TextFieldBase;
+import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.spring.annotation.SpringComponent;
 import com.vaadin.flow.spring.annotation.UIScope;
@@ -89,6 +91,10 @@ public class SignUpScreen extends VerticalLayout {
         usernameField.setPrefixComponent(VaadinIcon.USER.create());
         usernameField.setRequiredIndicatorVisible(true);
         styleFormField(usernameField);
+        // As-you-type availability; LAZY waits for a pause in typing
+        usernameField.setValueChangeMode(ValueChangeMode.LAZY);
+        usernameField.addValueChangeListener(e -> showAvailability(usernameField,
+                oauthService.isUsernameAvailable(e.getValue().trim()), "Username already taken"));
 
         PasswordField passwordField = new PasswordField();
         passwordField.setLabel("Password");
@@ -103,6 +109,9 @@ public class SignUpScreen extends VerticalLayout {
         emailField.setPrefixComponent(VaadinIcon.ENVELOPE.create());
         emailField.setRequiredIndicatorVisible(true);
         styleFormField(emailField);
+        emailField.setValueChangeMode(ValueChangeMode.LAZY);
+        emailField.addValueChangeListener(e -> showAvailability(emailField,
+                oauthService.isEmailAvailable(e.getValue().trim()), "Email already registered"));
 
         // Enhanced signup button
         Button signUpButton = new Button("Create Account", VaadinIcon.ARROW_RIGHT.create());
@@ -205,6 +214,14 @@ public class SignUpScreen extends VerticalLayout {
         add(card);
     }
 
+    // Marks the field taken, or shows a small confirmation when the value is free
+    private void showAvailability(TextFieldBase<?, String> field, boolean available, String takenMessage) {
+        boolean blank = field.getValue() == null || field.getValue().isBlank();
+        field.setErrorMessage(takenMessage);
+        field.setInvalid(!blank && !available);
+        field.setHelperText(!blank && available ? "✓ Available" : null);
+    }
+
     private void styleFormField(com.vaadin.flow.component.HasElement field) {
         field.getElement().getStyle().set("width", "100%").set("margin-bottom", "16px");
         
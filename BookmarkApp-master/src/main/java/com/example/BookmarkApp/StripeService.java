@@ -3,13 +3,16 @@ package com.example.BookmarkApp;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.*;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.checkout.SessionCreateParams;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class StripeService {
@@ -31,6 +34,20 @@ public class StripeService {
     @Value("${stripe.payment-link.ultra}")
     private String ultraPaymentLink;
 
+    // Set to point the SDK at a local stand-in instead of api.stripe.com
+    @Value("${stripe.api.base:}")
+    private String apiBase;
+
+    @Value("${stripe.api.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${stripe.api.read-timeout:5s}")
+    private Duration readTimeout;
+
+    // A plan change carried by a webhook event; created is Stripe's event time (epoch seconds)
+    public record PlanChange(String username, String plan, long created) {
+    }
+
     public StripeService(OauthService oauthService) {
         this.oauthService = oauthService;
     }
@@ -38,6 +55,9 @@ public class StripeService {
     @PostConstruct
     public void init() {
         Stripe.apiKey = secretKey;
+        if (apiBase != null && !apiBase.isBlank()) {
+            Stripe.overrideApiBase(apiBase);
+        }
     }
 
     /**
@@ -72,35 +92,84 @@ public class StripeService {
                     .build()
             )
             .setCustomerEmail(customerEmail)
+            // Read back by the webhook handlers, see processWebhookEvent
+            .setClientReferenceId(username)
+            .putMetadata("username", username)
+            .putMetadata("plan", planName)
+            .setSubscriptionData(
+                SessionCreateParams.SubscriptionData.builder()
+                    .putMetadata("username", username)
+                    .putMetadata("plan", planName)
+                    .build()
+            )
             .build();
 
-        com.stripe.model.checkout.Session session = com.stripe.model.checkout.Session.create(params);
+        // No SDK retries: a slow API should fail within the timeouts, and CheckoutSessionService decides what next
+        RequestOptions options = RequestOptions.builder()
+            .setConnectTimeout((int) connectTimeout.toMillis())
+            .setReadTimeout((int) readTimeout.toMillis())
+            .setMaxNetworkRetries(0)
+            .build();
+        com.stripe.model.checkout.Session session = com.stripe.model.checkout.Session.create(params, options);
         return session.getUrl();
     }
 
     /**
-     * Process webhook events from Stripe
+     * Process webhook events from Stripe. Called by StripeWebhookProcessor for verified inbox
+     * events; returns the plan change the event implies, which the processor applies in batches.
+     * Throws if the event cannot be read, so it is retried.
      */
-    public void processWebhookEvent(Event event) {
+    public Optional<PlanChange> processWebhookEvent(Event event) {
         // Handle different event types
         switch (event.getType()) {
             case "checkout.session.completed":
-                handleCheckoutSessionCompleted(event);
-                break;
+                return handleCheckoutSessionCompleted(event);
+            case "customer.subscription.deleted":
+                return handleSubscriptionDeleted(event);
             case "invoice.payment_succeeded":
                 handlePaymentSucceeded(event);
-                break;
+                return Optional.empty();
             case "customer.subscription.created":
                 handleSubscriptionCreated(event);
-                break;
+                return Optional.empty();
             default:
                 System.out.println("Unhandled event type: " + event.getType());
+                return Optional.empty();
+        }
+    }
+
+    private Optional<PlanChange> handleCheckoutSessionCompleted(Event event) {
+        com.stripe.model.checkout.Session session = (com.stripe.model.checkout.Session) dataObject(event);
+        Map<String, String> metadata = session.getMetadata() != null ? session.getMetadata() : Map.of();
+        String username = metadata.getOrDefault("username", session.getClientReferenceId());
+        String plan = metadata.get("plan");
+        System.out.println("Checkout session completed: " + event.getId() + " user=" + username + " plan=" + plan);
+        // Payment links do not carry our metadata; the success redirect still updates the plan
+        if (username == null || plan == null) {
+            return Optional.empty();
         }
+        return Optional.of(new PlanChange(username, plan, event.getCreated()));
     }
 
-    private void handleCheckoutSessionCompleted(Event event) {
-        // Implementation for successful checkout
-        System.out.println("Checkout session completed: " + event.getId());
+    private Optional<PlanChange> handleSubscriptionDeleted(Event event) {
+        Subscription subscription = (Subscription) dataObject(event);
+        String username = subscription.getMetadata() != null ? subscription.getMetadata().get("username") : null;
+        System.out.println("Subscription ended: " + event.getId() + " user=" + username);
+        return username == null ? Optional.empty() : Optional.of(new PlanChange(username, "Free", event.getCreated()));
+    }
+
+    // The event's data.object; falls back to an unchecked read when the event's API version differs from the SDK's
+    private static StripeObject dataObject(Event event) {
+        EventDataObjectDeserializer deserializer = event.getDataObjectDeserializer();
+        Optional<StripeObject> object = deserializer.getObject();
+        if (object.isPresent()) {
+            return object.get();
+        }
+        try {
+            return deserializer.deserializeUnsafe();
+        } catch (com.stripe.exception.EventDataObjectDeserializationException e) {
+            throw new IllegalStateException("Unreadable data.object in event " + event.getId(), e);
+        }
     }
 
     private void handlePaymentSucceeded(Event event) {
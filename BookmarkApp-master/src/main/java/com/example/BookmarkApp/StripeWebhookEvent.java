@@ -0,0 +1,105 @@
+package com.example.BookmarkApp;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A verified Stripe webhook event in the inbox. The Stripe event id is the key, so a
+ * redelivered event is stored (and applied) once. StripeWebhookProcessor moves rows
+ * from PENDING to PROCESSED, or to FAILED after too many attempts.
+ */
+@Entity
+@Table(name = "stripe_webhook_events", indexes = {
+    @Index(name = "idx_stripe_webhook_events_pending", columnList = "status, next_attempt_at")
+})
+public class StripeWebhookEvent {
+    public enum Status { PENDING, PROCESSED, FAILED }
+
+    @Id
+    @Column(name = "event_id", length = 255)
+    private String eventId;
+
+    @Column(length = 100, nullable = false)
+    private String type;
+
+    // Stripe's creation time (epoch seconds); plan changes are applied in this order, see OauthService.updatePlans
+    @Column(name = "created", nullable = false)
+    private long created;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public StripeWebhookEvent() {
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    void markProcessed() {
+        status = Status.PROCESSED;
+        processedAt = Instant.now();
+        lastError = null;
+    }
+
+    // Schedules a retry, or gives up once maxAttempts is reached
+    void markAttemptFailed(String error, Instant retryAt, int maxAttempts) {
+        attempts++;
+        lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        if (attempts >= maxAttempts) {
+            status = Status.FAILED;
+        } else {
+            nextAttemptAt = retryAt;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.BookmarkApp;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, String> {
+
+    // One round trip on the webhook request path; 0 when the event id is already in the inbox
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO stripe_webhook_events (event_id, type, created, payload, status, attempts, received_at, next_attempt_at) "
+            + "VALUES (:eventId, :type, :created, :payload, 'PENDING', 0, now(), now()) "
+            + "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId, @Param("type") String type,
+                       @Param("created") long created, @Param("payload") String payload);
+
+    // Due events, locked for the calling transaction; rows locked by another worker are skipped, not waited on
+    @Query(value = "SELECT * FROM stripe_webhook_events WHERE status = 'PENDING' AND next_attempt_at <= now() "
+            + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StripeWebhookEvent> claimDue(@Param("limit") int limit);
+}
@@ -0,0 +1,179 @@
+package com.example.BookmarkApp;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stripe.model.Event;
+import com.stripe.net.ApiResource;
+
+/**
+ * The asynchronous half of the Stripe webhook pipeline. StripeController verifies the
+ * signature and calls {@link #enqueue}, which only inserts into the stripe_webhook_events
+ * inbox (a no-op for a redelivered event id) and wakes a worker - the request is acked
+ * without waiting for any processing.
+ *
+ * Workers claim due events with FOR UPDATE SKIP LOCKED, so instances and threads never
+ * share an event, and handle a whole batch in one transaction: the plan changes go to
+ * OauthService.updatePlans together, and the events are marked processed in the same
+ * commit, so an event is applied at most once. Failures are retried with exponential
+ * backoff and end up FAILED after max-attempts.
+ * Workers start with the application context's lifecycle, after every bean is ready,
+ * and stop before it closes.
+ */
+@Component
+public class StripeWebhookProcessor implements SmartLifecycle {
+    private final StripeWebhookEventRepository repository;
+    private final StripeService stripeService;
+    private final OauthService oauthService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration retryBase;
+    private final Duration retryMax;
+    private final int maxAttempts;
+    private final int workerCount;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public StripeWebhookProcessor(StripeWebhookEventRepository repository, StripeService stripeService,
+                                  OauthService oauthService, PlatformTransactionManager transactionManager,
+                                  @Value("${app.stripe.webhook.workers:2}") int workerCount,
+                                  @Value("${app.stripe.webhook.batch-size:50}") int batchSize,
+                                  @Value("${app.stripe.webhook.poll-interval:5s}") Duration pollInterval,
+                                  @Value("${app.stripe.webhook.retry-base:2s}") Duration retryBase,
+                                  @Value("${app.stripe.webhook.retry-max:10m}") Duration retryMax,
+                                  @Value("${app.stripe.webhook.max-attempts:10}") int maxAttempts) {
+        this.repository = repository;
+        this.stripeService = stripeService;
+        this.oauthService = oauthService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.retryBase = retryBase;
+        this.retryMax = retryMax;
+        this.maxAttempts = maxAttempts;
+        this.workerCount = workerCount;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "stripe-webhook-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Store a verified event in the inbox and wake a worker; the only work done on the
+     * webhook request. Returns false if the event id was already there.
+     */
+    public boolean enqueue(Event event, String payload) {
+        long created = event.getCreated() != null ? event.getCreated() : Instant.now().getEpochSecond();
+        boolean inserted = repository.insertIfAbsent(event.getId(), event.getType(), created, payload) > 0;
+        if (inserted && wakeUps.availablePermits() < workerCount) {
+            wakeUps.release();
+        }
+        return inserted;
+    }
+
+    private void runWorker() {
+        while (running) {
+            int claimed;
+            try {
+                claimed = processBatch();
+            } catch (RuntimeException e) {
+                System.out.println("Stripe webhook batch failed: " + e);
+                claimed = 0;
+            }
+            // A full batch means more may be waiting; otherwise sleep until woken or the next poll
+            if (claimed < batchSize) {
+                try {
+                    wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Claims and handles one batch of due events; returns how many were claimed
+    int processBatch() {
+        List<String> claimedIds = new ArrayList<>();
+        try {
+            Integer claimed = transactionTemplate.execute(status -> {
+                List<StripeWebhookEvent> batch = repository.claimDue(batchSize);
+                List<StripeService.PlanChange> changes = new ArrayList<>();
+                for (StripeWebhookEvent inboxEvent : batch) {
+                    claimedIds.add(inboxEvent.getEventId());
+                    try {
+                        Event event = ApiResource.GSON.fromJson(inboxEvent.getPayload(), Event.class);
+                        stripeService.processWebhookEvent(event).ifPresent(changes::add);
+                        inboxEvent.markProcessed();
+                    } catch (RuntimeException e) {
+                        inboxEvent.markAttemptFailed(e.toString(), nextAttemptAt(inboxEvent.getAttempts() + 1), maxAttempts);
+                        System.out.println("Stripe webhook event " + inboxEvent.getEventId() + " failed (attempt "
+                                + inboxEvent.getAttempts() + "): " + e);
+                    }
+                }
+                // One write for the batch; updatePlans orders changes against earlier batches too
+                if (!changes.isEmpty()) {
+                    oauthService.updatePlans(changes);
+                }
+                return batch.size();
+            });
+            return claimed != null ? claimed : 0;
+        } catch (RuntimeException e) {
+            // The whole batch rolled back, so every claimed event is retried
+            System.out.println("Stripe webhook batch rolled back, retrying " + claimedIds.size() + " events: " + e);
+            if (!claimedIds.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> repository.findAllById(claimedIds).forEach(inboxEvent ->
+                        inboxEvent.markAttemptFailed(e.toString(), nextAttemptAt(inboxEvent.getAttempts() + 1), maxAttempts)));
+            }
+            return 0;
+        }
+    }
+
+    private Instant nextAttemptAt(int attempt) {
+        Duration delay = backoff(attempt, retryBase, retryMax);
+        // Up to 20% jitter, so events that failed together do not retry together
+        long jitterMillis = ThreadLocalRandom.current().nextLong(delay.toMillis() / 5 + 1);
+        return Instant.now().plus(delay).plusMillis(jitterMillis);
+    }
+
+    // base, 2 x base, 4 x base, ... capped at max
+    static Duration backoff(int attempt, Duration base, Duration max) {
+        int doublings = Math.min(Math.max(0, attempt - 1), 30);
+        Duration delay = base.multipliedBy(1L << doublings);
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+}
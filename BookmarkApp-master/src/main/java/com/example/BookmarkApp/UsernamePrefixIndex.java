@@ -0,0 +1,204 @@
+package com.example.BookmarkApp;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Every username in a sorted array, for autocomplete without touching oauth_users.
+ * Keys are "lower-case name \0 name", so a case-insensitive prefix is one binary search
+ * followed by a scan of at most limit entries - well under a millisecond at a million users.
+ * New accounts go into a small sorted set that is merged into the array once it grows;
+ * searches read both. Loaded in the background at startup; until then search returns null
+ * and callers use the database. Every refresh-interval, accounts with an id above the last
+ * one seen are added, which picks up signups on other instances.
+ */
+@Component
+public class UsernamePrefixIndex implements CommandLineRunner {
+    private static final int MAX_RECENT = 4096;
+    // Identity ids become visible in commit order, not id order; each refresh re-reads this many back
+    private static final long ID_OVERLAP = 1000;
+
+    private final OauthRepository oauthRepository;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate readOnly;
+    private final Duration refreshInterval;
+    private volatile String[] sortedKeys;
+    private final ConcurrentSkipListSet<String> recentKeys = new ConcurrentSkipListSet<>();
+    // Only touched by the load and then the refresh thread
+    private volatile long lastSeenId;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "username-prefix-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UsernamePrefixIndex(OauthRepository oauthRepository, TaskExecutor taskExecutor,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.users.prefix-index.refresh-interval:30s}") Duration refreshInterval) {
+        this.oauthRepository = oauthRepository;
+        this.taskExecutor = taskExecutor;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.refreshInterval = refreshInterval;
+    }
+
+    @Override
+    public void run(String... args) {
+        taskExecutor.execute(() -> {
+            try {
+                long maxId = oauthRepository.findMaxId();
+                readOnly.executeWithoutResult(status -> {
+                    try (Stream<String> usernames = oauthRepository.streamUsernames()) {
+                        load(usernames);
+                    }
+                });
+                lastSeenId = maxId;
+                System.out.println("Username prefix index loaded: " + sortedKeys.length + " usernames");
+                refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                        TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                System.out.println("Username prefix index load failed: " + e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    // Adds accounts created since the load or the previous refresh, on any instance
+    void refresh() {
+        long after = Math.max(0, lastSeenId - ID_OVERLAP);
+        try {
+            long[] maxId = { after };
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = oauthRepository.streamAccountsAfter(after)) {
+                    rows.forEach(row -> {
+                        add((String) row[1]);
+                        maxId[0] = (Long) row[0];
+                    });
+                }
+            });
+            lastSeenId = Math.max(lastSeenId, maxId[0]);
+        } catch (RuntimeException e) {
+            System.out.println("Username prefix index refresh failed: " + e);
+        }
+    }
+
+    void load(Stream<String> usernames) {
+        String[] keys = usernames.map(UsernamePrefixIndex::keyOf).sorted().distinct().toArray(String[]::new);
+        sortedKeys = keys;
+        mergeRecentIfLarge();
+    }
+
+    // Called for every new account once committed, and by refresh; visible to searches immediately
+    public void add(String username) {
+        if (username == null) {
+            return;
+        }
+        String key = keyOf(username);
+        String[] keys = sortedKeys;
+        // Refresh re-reads recent ids, so most of what it adds is already indexed
+        if (keys != null && Arrays.binarySearch(keys, key) >= 0) {
+            return;
+        }
+        if (recentKeys.add(key)) {
+            mergeRecentIfLarge();
+        }
+    }
+
+    /**
+     * Up to limit usernames starting with prefix (case-insensitive), ordered by lower-case
+     * name; pass the last name of a page as after to get the next one.
+     * Null while the index is still loading.
+     */
+    public List<String> search(String prefix, String after, int limit) {
+        String[] keys = sortedKeys;
+        if (keys == null) {
+            return null;
+        }
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        String lowerPrefix = prefix == null ? "" : prefix.toLowerCase(Locale.ROOT);
+        String afterKey = after != null ? keyOf(after) : null;
+        String fromKey = afterKey != null && afterKey.compareTo(lowerPrefix) > 0 ? afterKey : lowerPrefix;
+
+        int position = Arrays.binarySearch(keys, fromKey);
+        int index = position >= 0 ? position : -position - 1;
+        Iterator<String> recent = recentKeys.tailSet(fromKey, true).iterator();
+        String nextRecent = recent.hasNext() ? recent.next() : null;
+
+        List<String> names = new ArrayList<>(Math.min(limit, 64));
+        String last = null;
+        while (names.size() < limit) {
+            String key;
+            if (nextRecent != null && (index >= keys.length || nextRecent.compareTo(keys[index]) <= 0)) {
+                key = nextRecent;
+                nextRecent = recent.hasNext() ? recent.next() : null;
+            } else if (index < keys.length) {
+                key = keys[index++];
+            } else {
+                break;
+            }
+            if (!key.startsWith(lowerPrefix)) {
+                break;
+            }
+            // A key can be in both during a merge; after is exclusive
+            if (key.equals(last) || key.equals(afterKey)) {
+                continue;
+            }
+            names.add(key.substring(key.indexOf('\0') + 1));
+            last = key;
+        }
+        return names;
+    }
+
+    private synchronized void mergeRecentIfLarge() {
+        String[] keys = sortedKeys;
+        if (keys == null || recentKeys.size() < MAX_RECENT) {
+            return;
+        }
+        List<String> merging = new ArrayList<>(recentKeys);
+        String[] merged = new String[keys.length + merging.size()];
+        int i = 0, j = 0, n = 0;
+        while (i < keys.length || j < merging.size()) {
+            String next;
+            if (j >= merging.size() || (i < keys.length && keys[i].compareTo(merging.get(j)) <= 0)) {
+                next = keys[i++];
+            } else {
+                next = merging.get(j++);
+            }
+            if (n == 0 || !merged[n - 1].equals(next)) {
+                merged[n++] = next;
+            }
+        }
+        sortedKeys = n == merged.length ? merged : Arrays.copyOf(merged, n);
+        // Published before removal, so a concurrent search always finds the key in one of the two
+        recentKeys.removeAll(merging);
+    }
+
+    private static String keyOf(String username) {
+        return username.toLowerCase(Locale.ROOT) + '\0' + username;
+    }
+}
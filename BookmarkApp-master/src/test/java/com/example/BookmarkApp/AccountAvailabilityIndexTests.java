@@ -0,0 +1,57 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AccountAvailabilityIndexTests {
+
+	private final OauthRepository repository = mock(OauthRepository.class);
+	private final AccountAvailabilityIndex index = new AccountAvailabilityIndex(repository, null,
+			mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 0.01, 1000, Duration.ofSeconds(30));
+
+	@Test
+	void refreshPicksUpAccountsCreatedOnOtherInstances() {
+		when(repository.count()).thenReturn(1L);
+		when(repository.findMaxId()).thenReturn(1500L);
+		when(repository.streamUsernamesAndEmails()).thenReturn(Stream.<Object[]>of(new Object[] { "alice", "alice@example.com" }));
+		index.rebuild();
+
+		assertEquals(false, index.isUsernameTaken("bob"));
+		verify(repository, never()).findByUsername(anyString());
+
+		// The refresh re-reads ids from lastSeenId - overlap, for rows committed out of id order
+		when(repository.streamAccountsAfter(500L)).thenReturn(Stream.<Object[]>of(
+				new Object[] { 1400L, "alice", "alice@example.com" },
+				new Object[] { 1501L, "bob", "bob@example.com" }));
+		index.refresh();
+		when(repository.findByUsername("bob")).thenReturn(Optional.of(new OauthUser("bob", "hash", "bob@example.com")));
+		assertEquals(true, index.isUsernameTaken("bob"));
+
+		when(repository.streamAccountsAfter(501L)).thenReturn(Stream.empty());
+		index.refresh();
+		verify(repository).streamAccountsAfter(501L);
+	}
+
+	@Test
+	void namesAreMatchedExactlyLikeTheUniqueConstraint() {
+		when(repository.count()).thenReturn(1L);
+		when(repository.streamUsernamesAndEmails()).thenReturn(Stream.<Object[]>of(new Object[] { "Alice", "alice@example.com" }));
+		index.rebuild();
+
+		assertEquals(false, index.isUsernameTaken("alice"));
+		verify(repository, never()).findByUsername(anyString());
+	}
+}
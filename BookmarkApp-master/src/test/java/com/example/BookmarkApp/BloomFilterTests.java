@@ -0,0 +1,28 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTests {
+
+	@Test
+	void noFalseNegativesAndFalsePositivesNearTarget() {
+		BloomFilter filter = new BloomFilter(100_000, 0.01);
+		for (int i = 0; i < 100_000; i++) {
+			filter.put("user" + i + "@example.com");
+		}
+		for (int i = 0; i < 100_000; i++) {
+			assertTrue(filter.mightContain("user" + i + "@example.com"));
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other" + i + "@example.com")) {
+				falsePositives++;
+			}
+		}
+		double rate = falsePositives / 100_000.0;
+		assertTrue(rate < 0.015, "false-positive rate " + rate);
+	}
+}
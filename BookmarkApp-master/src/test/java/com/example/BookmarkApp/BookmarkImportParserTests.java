@@ -0,0 +1,50 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BookmarkImportParserTests {
+
+	@Test
+	void parsesNetscapeHtmlWithFoldersAndTags() throws Exception {
+		String html = """
+				<!DOCTYPE NETSCAPE-Bookmark-file-1>
+				<DL><p>
+				    <DT><H3 ADD_DATE="1">Dev</H3>
+				    <DL><p>
+				        <DT><A HREF="https://spring.io/" TAGS="java,spring">Spring &amp; Boot</A>
+				    </DL><p>
+				    <DT><A HREF="https://example.com/">Example</A>
+				</DL><p>
+				""";
+		List<BookmarkImportParser.ImportedBookmark> entries = new ArrayList<>();
+		BookmarkImportParser.parseNetscapeHtml(new StringReader(html), entries::add);
+
+		assertEquals(List.of(
+				new BookmarkImportParser.ImportedBookmark("https://spring.io/", "Spring & Boot", "java,spring", "Dev"),
+				new BookmarkImportParser.ImportedBookmark("https://example.com/", "Example", null, "Imported")), entries);
+	}
+
+	@Test
+	void parsesChromeJsonWithFolderNameAfterChildren() throws Exception {
+		String json = """
+				{"roots": {"bookmark_bar": {"children": [
+				    {"name": "Docs", "type": "url", "url": "https://docs.example.com/"},
+				    {"name": "Work", "type": "folder", "children": []}
+				], "name": "Bookmarks bar", "type": "folder"}}}
+				""";
+		List<BookmarkImportParser.ImportedBookmark> entries = new ArrayList<>();
+		BookmarkImportParser.parseJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), entries::add);
+
+		assertEquals(List.of(
+				new BookmarkImportParser.ImportedBookmark("https://docs.example.com/", "Docs", null, "Imported")), entries);
+	}
+
+}
@@ -0,0 +1,175 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.stripe.Stripe;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * CheckoutSessionService against a local HTTP stand-in for POST /v1/checkout/sessions.
+ */
+class CheckoutSessionServiceTests {
+
+	private enum Mode { OK, SLOW, ERROR }
+
+	private HttpServer server;
+	private final AtomicReference<Mode> mode = new AtomicReference<>(Mode.OK);
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicReference<String> lastBody = new AtomicReference<>();
+	private StripeService stripeService;
+
+	@BeforeEach
+	void startStandIn() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/v1/checkout/sessions", this::handle);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+
+		stripeService = new StripeService(null);
+		ReflectionTestUtils.setField(stripeService, "secretKey", "sk_test_standin");
+		ReflectionTestUtils.setField(stripeService, "proPriceId", "price_pro");
+		ReflectionTestUtils.setField(stripeService, "ultraPriceId", "price_ultra");
+		ReflectionTestUtils.setField(stripeService, "proPaymentLink", "https://buy.stripe.test/pro");
+		ReflectionTestUtils.setField(stripeService, "ultraPaymentLink", "https://buy.stripe.test/ultra");
+		ReflectionTestUtils.setField(stripeService, "apiBase", "http://localhost:" + server.getAddress().getPort());
+		ReflectionTestUtils.setField(stripeService, "connectTimeout", Duration.ofSeconds(1));
+		ReflectionTestUtils.setField(stripeService, "readTimeout", Duration.ofMillis(300));
+		stripeService.init();
+	}
+
+	@AfterEach
+	void stopStandIn() {
+		Stripe.overrideApiBase(Stripe.LIVE_API_BASE);
+		server.stop(0);
+	}
+
+	@Test
+	void createsSessionThroughTheApi() throws Exception {
+		CheckoutSessionService checkout = new CheckoutSessionService(stripeService, 2, 4, Duration.ofSeconds(2), 2, Duration.ofMinutes(1));
+
+		CheckoutSessionService.CheckoutRedirect redirect = checkout.startCheckout("Pro", "alice@example.com", "http://localhost:8080", "alice")
+				.get(5, TimeUnit.SECONDS);
+
+		assertEquals("https://checkout.stripe.test/c/pay/cs_test_standin", redirect.url());
+		assertFalse(redirect.fallback());
+		String body = URLDecoder.decode(lastBody.get(), StandardCharsets.UTF_8);
+		assertTrue(body.contains("metadata[username]=alice"), body);
+		assertTrue(body.contains("line_items[0][price]=price_pro"), body);
+		checkout.shutdown();
+	}
+
+	@Test
+	void slowApiFailsWithinTheTimeout() {
+		mode.set(Mode.SLOW);
+		CheckoutSessionService checkout = new CheckoutSessionService(stripeService, 2, 4, Duration.ofSeconds(2), 5, Duration.ofMinutes(1));
+
+		long start = System.nanoTime();
+		CompletableFuture<CheckoutSessionService.CheckoutRedirect> result =
+				checkout.startCheckout("Pro", "alice@example.com", "http://localhost:8080", "alice");
+		assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2), "should fail at the read timeout");
+		checkout.shutdown();
+	}
+
+	@Test
+	void openBreakerGoesStraightToThePaymentLink() throws Exception {
+		mode.set(Mode.ERROR);
+		CheckoutSessionService checkout = new CheckoutSessionService(stripeService, 2, 4, Duration.ofSeconds(2), 2, Duration.ofMinutes(1));
+
+		for (int i = 0; i < 2; i++) {
+			CompletableFuture<CheckoutSessionService.CheckoutRedirect> failed =
+					checkout.startCheckout("Ultra", "alice@example.com", "http://localhost:8080", "alice");
+			assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(CircuitBreaker.State.OPEN, checkout.circuitState());
+		int requestsBefore = requests.get();
+
+		CheckoutSessionService.CheckoutRedirect redirect = checkout.startCheckout("Ultra", "alice@example.com", "http://localhost:8080", "alice")
+				.get(100, TimeUnit.MILLISECONDS);
+		assertEquals("https://buy.stripe.test/ultra", redirect.url());
+		assertTrue(redirect.fallback());
+		assertEquals(requestsBefore, requests.get());
+		checkout.shutdown();
+	}
+
+	@Test
+	void halfOpenProbeClosesOrReopensTheCircuit() {
+		long[] now = { 0 };
+		CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(10), () -> now[0]);
+		assertTrue(breaker.tryAcquire());
+		breaker.onFailure();
+		assertFalse(breaker.tryAcquire());
+
+		now[0] = Duration.ofSeconds(11).toNanos();
+		assertTrue(breaker.tryAcquire());
+		assertFalse(breaker.tryAcquire()); // one probe at a time
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+		now[0] += Duration.ofSeconds(11).toNanos();
+		assertTrue(breaker.tryAcquire());
+		breaker.onSuccess();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+		String response;
+		int status;
+		switch (mode.get()) {
+			case SLOW -> {
+				try {
+					Thread.sleep(3000);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				status = 200;
+				response = session();
+			}
+			case ERROR -> {
+				status = 500;
+				response = "{\"error\":{\"type\":\"api_error\",\"message\":\"stand-in failure\"}}";
+			}
+			default -> {
+				status = 200;
+				response = session();
+			}
+		}
+		byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		try {
+			exchange.sendResponseHeaders(status, bytes.length);
+			exchange.getResponseBody().write(bytes);
+		} catch (IOException e) {
+			// the client gave up (read timeout)
+		}
+		exchange.close();
+	}
+
+	private static String session() {
+		return "{\"id\":\"cs_test_standin\",\"object\":\"checkout.session\",\"mode\":\"subscription\","
+				+ "\"url\":\"https://checkout.stripe.test/c/pay/cs_test_standin\"}";
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatWebServerFactoryCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.mock.env.MockEnvironment;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * The server.* settings from application.properties on an embedded Tomcat: the address the
+ * app sees (and LoginScreen keys the per-address login limit by) is the client's, not the
+ * front end's. The test client connects from 127.0.0.1, a trusted proxy.
+ */
+class ForwardedHeadersTests {
+
+	private WebServer server;
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void start() throws IOException {
+		Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+		ServerProperties serverProperties = new ServerProperties();
+		new Binder(new MapConfigurationPropertySource(properties)).bind("server", Bindable.ofInstance(serverProperties));
+
+		TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+		new TomcatWebServerFactoryCustomizer(new MockEnvironment(), serverProperties).customize(factory);
+		server = factory.getWebServer(context -> context.addServlet("remote-address", new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				response.getWriter().write(request.getRemoteAddr());
+			}
+		}).addMapping("/"));
+		server.start();
+	}
+
+	@AfterEach
+	void stop() {
+		server.stop();
+	}
+
+	@Test
+	void clientAddressComesFromXForwardedFor() throws Exception {
+		assertEquals("127.0.0.1", remoteAddress(null));
+		assertEquals("203.0.113.7", remoteAddress("203.0.113.7"));
+		// The Google front end appends itself; a client-supplied entry further left is ignored
+		assertEquals("203.0.113.7", remoteAddress("198.51.100.1, 203.0.113.7, 35.191.10.20"));
+	}
+
+	private String remoteAddress(String forwardedFor) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + "/"));
+		if (forwardedFor != null) {
+			request.header("X-Forwarded-For", forwardedFor);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString()).body();
+	}
+}
@@ -0,0 +1,219 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * OauthClient against a local stub identity provider: OpenID discovery, JWKS, token,
+ * user-info and GitHub-style emails endpoints.
+ */
+class OauthClientTests {
+
+	private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+	private HttpServer server;
+	private String base;
+	private KeyPair signingKey;
+	private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+	private volatile long userInfoDelayMillis;
+	private volatile long tokenDelayMillis;
+	private volatile boolean issueIdToken = true;
+	private SimpleMeterRegistry meterRegistry;
+	private OauthProperties properties;
+	private OauthClient client;
+
+	@BeforeEach
+	void startStubProvider() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		signingKey = generator.generateKeyPair();
+
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		base = "http://localhost:" + server.getAddress().getPort();
+		server.createContext("/.well-known/openid-configuration", exchange -> respond(exchange, "discovery", 0,
+				"{\"issuer\":\"" + base + "\",\"authorization_endpoint\":\"" + base + "/authorize\","
+						+ "\"token_endpoint\":\"" + base + "/token\",\"userinfo_endpoint\":\"" + base + "/userinfo\","
+						+ "\"jwks_uri\":\"" + base + "/jwks\"}"));
+		server.createContext("/jwks", exchange -> respond(exchange, "jwks", 0, jwks()));
+		server.createContext("/token", exchange -> respond(exchange, "token", tokenDelayMillis, tokenResponse()));
+		server.createContext("/userinfo", exchange -> respond(exchange, "userinfo", userInfoDelayMillis,
+				"{\"sub\":\"42\",\"login\":\"octo\"}"));
+		server.createContext("/emails", exchange -> respond(exchange, "emails", userInfoDelayMillis,
+				"[{\"email\":\"old@example.com\",\"primary\":false,\"verified\":true},"
+						+ "{\"email\":\"octo@example.com\",\"primary\":true,\"verified\":true}]"));
+		server.start();
+
+		properties = new OauthProperties();
+		OauthProperties.Provider oidc = new OauthProperties.Provider();
+		oidc.setIssuer(base);
+		oidc.setClientId("bookmark-app");
+		oidc.setClientSecret("secret");
+		oidc.setRedirectUri("http://localhost:8080/oauth/callback/oidc");
+		oidc.setRequestTimeout(Duration.ofMillis(500));
+		properties.getProviders().put("oidc", oidc);
+
+		OauthProperties.Provider plain = new OauthProperties.Provider();
+		plain.setAuthorizationUri(base + "/authorize");
+		plain.setTokenUri(base + "/token");
+		plain.setUserInfoUri(base + "/userinfo");
+		plain.setEmailsUri(base + "/emails");
+		plain.setClientId("bookmark-app");
+		plain.setClientSecret("secret");
+		plain.setUsernameAttribute("login");
+		plain.setRequestTimeout(Duration.ofSeconds(2));
+		properties.getProviders().put("plain", plain);
+
+		meterRegistry = new SimpleMeterRegistry();
+		client = new OauthClient(properties, new ObjectMapper(), meterRegistry);
+	}
+
+	@AfterEach
+	void stop() {
+		client.shutdown();
+		server.stop(0);
+	}
+
+	@Test
+	void openIdLoginUsesVerifiedIdTokenAndCachedMetadata() {
+		for (int i = 0; i < 3; i++) {
+			OauthClient.OauthTokens tokens = client.exchangeCodeForAccessToken("oidc", "code-" + i);
+			OauthUser user = client.fetchUserInfo("oidc", tokens);
+			assertEquals("alice", user.getUsername());
+			assertEquals("alice@example.com", user.getEmail());
+		}
+		assertTrue(client.buildAuthorizationUrl("oidc").startsWith(base + "/authorize?client_id=bookmark-app"));
+
+		assertEquals(1, hits("discovery"));
+		assertEquals(1, hits("jwks"));
+		assertEquals(3, hits("token"));
+		assertEquals(0, hits("userinfo"));
+		assertEquals(3, meterRegistry.get("oauth.client.requests")
+				.tags("provider", "oidc", "operation", "token", "outcome", "success").timer().count());
+	}
+
+	@Test
+	void plainOauthFetchesUserInfoAndEmailsInParallel() {
+		issueIdToken = false;
+		userInfoDelayMillis = 400;
+		OauthClient.OauthTokens tokens = client.exchangeCodeForAccessToken("plain", "code");
+
+		long start = System.nanoTime();
+		OauthUser user = client.fetchUserInfo("plain", tokens);
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		assertEquals("octo", user.getUsername());
+		assertEquals("octo@example.com", user.getEmail());
+		assertTrue(elapsedMillis < 750, "user info and emails should be fetched together, took " + elapsedMillis + " ms");
+	}
+
+	@Test
+	void metadataIsRefreshedAheadOfExpiryInTheBackground() throws Exception {
+		properties.setMetadataTtl(Duration.ofSeconds(2));
+		properties.setMetadataRefreshAhead(Duration.ofMillis(1800));
+		assertNotNull(client.metadata("oidc"));
+		assertEquals(1, hits("discovery"));
+
+		Thread.sleep(300);
+		assertNotNull(client.metadata("oidc")); // served from cache, refresh starts behind it
+		for (int i = 0; i < 50 && hits("discovery") < 2; i++) {
+			Thread.sleep(20);
+		}
+		assertEquals(2, hits("discovery"));
+	}
+
+	@Test
+	void slowProviderFailsAtTheRequestTimeout() {
+		tokenDelayMillis = 3000;
+		client.metadata("oidc");
+
+		long start = System.nanoTime();
+		assertThrows(OauthProviderException.class, () -> client.exchangeCodeForAccessToken("oidc", "code"));
+		assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+		assertEquals(1, meterRegistry.get("oauth.client.requests")
+				.tags("provider", "oidc", "operation", "token", "outcome", "timeout").timer().count());
+	}
+
+	private int hits(String endpoint) {
+		return hits.computeIfAbsent(endpoint, name -> new AtomicInteger()).get();
+	}
+
+	private void respond(HttpExchange exchange, String endpoint, long delayMillis, String body) throws IOException {
+		hits.computeIfAbsent(endpoint, name -> new AtomicInteger()).incrementAndGet();
+		exchange.getRequestBody().readAllBytes();
+		try {
+			Thread.sleep(delayMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		try {
+			exchange.sendResponseHeaders(200, bytes.length);
+			exchange.getResponseBody().write(bytes);
+		} catch (IOException e) {
+			// the client timed out and went away
+		}
+		exchange.close();
+	}
+
+	private String tokenResponse() {
+		return issueIdToken
+				? "{\"access_token\":\"at-123\",\"token_type\":\"Bearer\",\"id_token\":\"" + idToken() + "\"}"
+				: "{\"access_token\":\"at-123\",\"token_type\":\"Bearer\"}";
+	}
+
+	private String idToken() {
+		try {
+			String header = BASE64URL.encodeToString("{\"alg\":\"RS256\",\"kid\":\"stub-key\"}".getBytes(StandardCharsets.UTF_8));
+			long exp = System.currentTimeMillis() / 1000 + 300;
+			String claims = BASE64URL.encodeToString(("{\"iss\":\"" + base + "\",\"aud\":\"bookmark-app\",\"sub\":\"1\","
+					+ "\"preferred_username\":\"alice\",\"email\":\"alice@example.com\",\"exp\":" + exp + "}")
+					.getBytes(StandardCharsets.UTF_8));
+			Signature signature = Signature.getInstance("SHA256withRSA");
+			signature.initSign(signingKey.getPrivate());
+			signature.update((header + "." + claims).getBytes(StandardCharsets.US_ASCII));
+			return header + "." + claims + "." + BASE64URL.encodeToString(signature.sign());
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private String jwks() {
+		RSAPublicKey key = (RSAPublicKey) signingKey.getPublic();
+		return "{\"keys\":[{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"stub-key\","
+				+ "\"n\":\"" + BASE64URL.encodeToString(unsigned(key.getModulus().toByteArray())) + "\","
+				+ "\"e\":\"" + BASE64URL.encodeToString(unsigned(key.getPublicExponent().toByteArray())) + "\"}]}";
+	}
+
+	private static byte[] unsigned(byte[] bytes) {
+		return bytes.length > 1 && bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+	}
+}
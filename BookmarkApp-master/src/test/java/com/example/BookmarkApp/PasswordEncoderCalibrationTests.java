@@ -0,0 +1,43 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordEncoderCalibrationTests {
+
+	@Test
+	void strengthIsHighestCostWithinTarget() {
+		long base = Duration.ofMillis(60).toNanos();
+		assertEquals(10, PasswordEncoderCalibration.strengthFor(Duration.ofMillis(100).toNanos(), base));
+		assertEquals(11, PasswordEncoderCalibration.strengthFor(Duration.ofMillis(120).toNanos(), base));
+		assertEquals(13, PasswordEncoderCalibration.strengthFor(Duration.ofMillis(500).toNanos(), base));
+		// Never below the existing cost, never unbounded
+		assertEquals(10, PasswordEncoderCalibration.strengthFor(Duration.ofMillis(1).toNanos(), base));
+		assertEquals(16, PasswordEncoderCalibration.strengthFor(Duration.ofHours(1).toNanos(), base));
+	}
+
+	@Test
+	void legacyAndCheaperHashesVerifyAndNeedUpgrade() {
+		PasswordEncoder encoder = new SecurityConfig().passwordEncoder(Duration.ofMillis(100), 11);
+		String legacy = new BCryptPasswordEncoder(10).encode("secret");
+		String cheaper = "{bcrypt}" + new BCryptPasswordEncoder(10).encode("secret");
+		String current = encoder.encode("secret");
+
+		assertTrue(current.startsWith("{bcrypt}$2a$11$"));
+		assertTrue(encoder.matches("secret", legacy));
+		assertTrue(encoder.matches("secret", cheaper));
+		assertTrue(encoder.matches("secret", current));
+		assertFalse(encoder.matches("wrong", legacy));
+
+		assertTrue(encoder.upgradeEncoding(legacy));
+		assertTrue(encoder.upgradeEncoding(cheaper));
+		assertFalse(encoder.upgradeEncoding(current));
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PasswordVerificationExecutorTests {
+
+	// One thread (fraction 0 rounds up to 1), one queue slot, 1 per user, 2 per address
+	private final PasswordVerificationExecutor executor = new PasswordVerificationExecutor(0, 1, 1, 2);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void shutdown() {
+		release.countDown();
+		executor.shutdown();
+	}
+
+	@Test
+	void rejectsOverPerUserAndPerAddressLimits() throws Exception {
+		CompletableFuture<Boolean> first = executor.submit("alice", "10.0.0.1", this::blockedCheck);
+
+		assertRejected(executor.submit("alice", "10.0.0.2", () -> true));
+		CompletableFuture<Boolean> second = executor.submit("bob", "10.0.0.1", () -> true);
+		assertRejected(executor.submit("carol", "10.0.0.1", () -> true));
+
+		release.countDown();
+		assertEquals(true, first.get());
+		assertEquals(true, second.get());
+		assertEquals(true, executor.submit("alice", "10.0.0.1", () -> true).get());
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() throws Exception {
+		CompletableFuture<Boolean> running = executor.submit("u1", "a1", this::blockedCheck);
+		CompletableFuture<Boolean> queued = executor.submit("u2", "a2", () -> true);
+
+		assertRejected(executor.submit("u3", "a3", () -> true));
+
+		release.countDown();
+		assertEquals(true, running.get());
+		assertEquals(true, queued.get());
+		// The rejected caller's in-flight slots were released
+		assertEquals(true, executor.submit("u3", "a3", () -> true).get());
+	}
+
+	private boolean blockedCheck() {
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return true;
+	}
+
+	private static void assertRejected(CompletableFuture<?> future) {
+		ExecutionException error = assertThrows(ExecutionException.class, future::get);
+		assertInstanceOf(RejectedExecutionException.class, error.getCause());
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+class PaymentSuccessPageTests {
+
+	private final PaymentSuccessPage page = new PaymentSuccessPage();
+
+	@Test
+	void gzipRepresentationDecodesToThePageWithItsOwnEtag() throws Exception {
+		PaymentSuccessPage.Representation identity = page.select(null);
+		PaymentSuccessPage.Representation gzip = page.select("br, gzip;q=0.8, deflate");
+
+		assertNull(identity.contentEncoding());
+		assertEquals("gzip", gzip.contentEncoding());
+		assertArrayEquals(PaymentSuccessPage.render().getBytes(StandardCharsets.UTF_8), identity.body());
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+			assertArrayEquals(identity.body(), in.readAllBytes());
+		}
+		assertTrue(gzip.body().length < identity.body().length);
+		assertNotEquals(identity.etag(), gzip.etag());
+	}
+
+	@Test
+	void negotiatesEncodingAndMatchesIfNoneMatch() {
+		assertTrue(PaymentSuccessPage.acceptsGzip("GZIP"));
+		assertTrue(PaymentSuccessPage.acceptsGzip("*"));
+		assertFalse(PaymentSuccessPage.acceptsGzip("gzip;q=0"));
+		assertFalse(PaymentSuccessPage.acceptsGzip("identity, br"));
+
+		PaymentSuccessPage.Representation gzip = page.select("gzip");
+		assertTrue(PaymentSuccessPage.matches("\"other\", " + gzip.etag(), gzip));
+		assertTrue(PaymentSuccessPage.matches("W/" + gzip.etag(), gzip));
+		assertFalse(PaymentSuccessPage.matches(page.select(null).etag(), gzip));
+		assertFalse(PaymentSuccessPage.matches(null, gzip));
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.BookmarkApp;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Records JFR jdk.VirtualThreadPinned events while a test class runs and fails the
+ * class if a virtual thread blocked while pinned to its carrier (synchronized blocks,
+ * native frames). Registered for all tests through junit-platform.properties.
+ */
+public class PinnedVirtualThreadExtension implements BeforeAllCallback, AfterAllCallback {
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(PinnedVirtualThreadExtension.class);
+
+	@Override
+	public void beforeAll(ExtensionContext context) {
+		List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+		RecordingStream stream = new RecordingStream();
+		stream.enable("jdk.VirtualThreadPinned").withStackTrace().withThreshold(java.time.Duration.ZERO);
+		stream.onEvent("jdk.VirtualThreadPinned", pinned::add);
+		stream.startAsync();
+		context.getStore(NAMESPACE).put("stream", stream);
+		context.getStore(NAMESPACE).put("pinned", pinned);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void afterAll(ExtensionContext context) {
+		RecordingStream stream = context.getStore(NAMESPACE).remove("stream", RecordingStream.class);
+		List<RecordedEvent> pinned = context.getStore(NAMESPACE).remove("pinned", List.class);
+		stream.stop(); // flushes, so events from the last test are delivered
+		stream.close();
+		if (!pinned.isEmpty()) {
+			throw new AssertionError(pinned.size() + " pinned virtual thread(s) in "
+					+ context.getDisplayName() + ", first at:" + describe(pinned.get(0)));
+		}
+	}
+
+	private static String describe(RecordedEvent event) {
+		StringBuilder trace = new StringBuilder();
+		if (event.getStackTrace() != null) {
+			for (RecordedFrame frame : event.getStackTrace().getFrames().subList(0,
+					Math.min(12, event.getStackTrace().getFrames().size()))) {
+				trace.append("\n\tat ").append(frame.getMethod().getType().getName())
+						.append('.').append(frame.getMethod().getName())
+						.append(':').append(frame.getLineNumber());
+			}
+		}
+		return trace.toString();
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class PublicFeedSnapshotTests {
+
+	@Test
+	void appliesOwnerCapAndFavoritesFirstOrdering() {
+		PublicFeedSnapshot snapshot = PublicFeedSnapshot.of(List.of(
+				bookmark(1L, "carol", "No"),
+				bookmark(2L, "alice", "No"),
+				bookmark(3L, "bob", "Yes"),
+				bookmark(4L, "alice", "Yes")));
+
+		BookmarkFilter capped = BookmarkFilter.publicFeed(2);
+		assertEquals(List.of(3L, 4L, 2L), ids(snapshot.page(capped, null, 0, 10)));
+		assertEquals(3, snapshot.count(capped));
+		assertEquals(List.of(4L), ids(snapshot.page(capped, null, 1, 1)));
+		assertEquals(List.of(1L), ids(snapshot.page(BookmarkFilter.publicFeed(-1).withPublicOwnerContaining("CAR"), null, 0, 10)));
+	}
+
+	@Test
+	void appliesChangesIncrementally() {
+		PublicFeedSnapshot snapshot = PublicFeedSnapshot.of(List.of(bookmark(1L, "alice", "No")));
+
+		Bookmark added = bookmark(2L, "bob", "Yes");
+		added.setTags(Set.of("java"));
+		snapshot.apply(added);
+		assertEquals(List.of(2L, 1L), ids(snapshot.page(BookmarkFilter.publicFeed(-1), null, 0, 10)));
+		assertEquals(List.of(2L), ids(snapshot.page(BookmarkFilter.publicFeed(-1).withTags(Set.of("java")), null, 0, 10)));
+
+		Bookmark madePrivate = bookmark(1L, "alice", "No");
+		madePrivate.setSecurityOption("Private");
+		snapshot.apply(madePrivate);
+		snapshot.remove(2L);
+		assertEquals(0, snapshot.count(BookmarkFilter.publicFeed(-1)));
+	}
+
+	@Test
+	void seeksAfterKeyAndRefreshesCappedViewsOnChange() {
+		PublicFeedSnapshot snapshot = PublicFeedSnapshot.of(List.of(
+				bookmark(1L, "bob", "No"),
+				bookmark(2L, "carol", "No"),
+				bookmark(3L, "bob", "Yes")));
+
+		BookmarkFilter capped = BookmarkFilter.publicFeed(1);
+		assertEquals(List.of(3L, 1L), ids(snapshot.page(capped, null, 0, 10)));
+		assertEquals(List.of(1L), ids(snapshot.page(capped, new BookmarkKey(true, 3L), 5, 10)));
+		assertEquals(List.of(2L), ids(snapshot.page(BookmarkFilter.publicFeed(-1), new BookmarkKey(false, 1L), 0, 10)));
+
+		// A new owner sorting first takes the only capped slot
+		snapshot.apply(bookmark(4L, "alice", "No"));
+		assertEquals(List.of(4L), ids(snapshot.page(capped, null, 0, 10)));
+		assertEquals(1, snapshot.count(capped));
+		assertEquals(4, snapshot.count(BookmarkFilter.publicFeed(-1)));
+		assertEquals(List.of(), ids(snapshot.page(capped.withPublicOwner("bob"), null, 0, 10)));
+	}
+
+	private static Bookmark bookmark(Long id, String owner, String favorite) {
+		Bookmark bookmark = new Bookmark("https://example.com/" + id, "Bookmark " + id, null, favorite, "Public", null, owner);
+		bookmark.setId(id);
+		return bookmark;
+	}
+
+	private static List<Long> ids(List<Bookmark> bookmarks) {
+		return bookmarks.stream().map(Bookmark::getId).toList();
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReplicaRoutingDataSourceTests {
+
+	private final ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(new DriverManagerDataSource(), Duration.ofSeconds(2));
+	private final ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(Duration.ofSeconds(5), Duration.ofSeconds(2));
+	private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+			new DriverManagerDataSource(), new DriverManagerDataSource(), lagMonitor, readYourWrites);
+
+	@AfterEach
+	void clearTransactionState() {
+		TransactionSynchronizationManager.clear();
+	}
+
+	@Test
+	void routesReadOnlyTransactionsToHealthyReplica() {
+		lagMonitor.update(0.5);
+		assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+
+		lagMonitor.update(3.0);
+		assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+
+		lagMonitor.update(null);
+		assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void keepsRecentWritersOnPrimary() {
+		lagMonitor.update(0.0);
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		readYourWrites.recordWrite("alice");
+
+		readYourWrites.bindReader("alice");
+		assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(0));
+		readYourWrites.bindReader("bob");
+		assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+	}
+}
@@ -0,0 +1,191 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.stripe.model.Event;
+
+/**
+ * processBatch against an in-memory inbox with the database semantics it relies on:
+ * each transaction works on its own copies of the rows, commit writes them back,
+ * rollback discards them, and rows claimed by an open transaction are skipped.
+ */
+class StripeWebhookProcessorTests {
+
+	private static final StripeService.PlanChange CHANGE = new StripeService.PlanChange("alice", "Pro", 1760000000L);
+
+	private final FakeInbox inbox = new FakeInbox();
+	private final StripeService stripeService = mock(StripeService.class);
+	private final OauthService oauthService = mock(OauthService.class);
+
+	@Test
+	void eventIsAppliedAtMostOnceOnRedeliveryAndAcrossWorkers() {
+		StripeWebhookProcessor first = processor(10);
+		StripeWebhookProcessor second = processor(10);
+		when(stripeService.processWebhookEvent(any())).thenReturn(Optional.of(CHANGE));
+		// While the first worker's batch is open, the second worker claims nothing
+		int[] claimedBySecond = new int[1];
+		doAnswer(invocation -> {
+			claimedBySecond[0] = second.processBatch();
+			return null;
+		}).when(oauthService).updatePlans(anyList());
+
+		assertEquals(true, first.enqueue(event("evt_1"), "{}"));
+		assertEquals(false, first.enqueue(event("evt_1"), "{}"));
+		assertEquals(1, first.processBatch());
+		assertEquals(0, claimedBySecond[0]);
+		assertEquals(0, second.processBatch());
+		assertEquals(0, first.processBatch());
+
+		verify(oauthService, times(1)).updatePlans(List.of(CHANGE));
+		assertEquals(StripeWebhookEvent.Status.PROCESSED, inbox.committed("evt_1").getStatus());
+	}
+
+	@Test
+	void rolledBackBatchIsRetried() {
+		StripeWebhookProcessor processor = processor(10);
+		when(stripeService.processWebhookEvent(any())).thenReturn(Optional.of(CHANGE));
+		doThrow(new IllegalStateException("connection reset")).doNothing().when(oauthService).updatePlans(anyList());
+		processor.enqueue(event("evt_1"), "{}");
+
+		assertEquals(0, processor.processBatch());
+		StripeWebhookEvent afterRollback = inbox.committed("evt_1");
+		assertEquals(StripeWebhookEvent.Status.PENDING, afterRollback.getStatus());
+		assertEquals(1, afterRollback.getAttempts());
+
+		assertEquals(1, processor.processBatch());
+		verify(oauthService, times(2)).updatePlans(List.of(CHANGE));
+		assertEquals(StripeWebhookEvent.Status.PROCESSED, inbox.committed("evt_1").getStatus());
+	}
+
+	@Test
+	void eventIsMarkedFailedAfterMaxAttempts() {
+		StripeWebhookProcessor processor = processor(3);
+		when(stripeService.processWebhookEvent(any())).thenThrow(new IllegalArgumentException("unknown price"));
+		processor.enqueue(event("evt_1"), "{}");
+
+		for (int attempt = 1; attempt <= 3; attempt++) {
+			assertEquals(1, processor.processBatch());
+		}
+		assertEquals(0, processor.processBatch());
+
+		StripeWebhookEvent failed = inbox.committed("evt_1");
+		assertEquals(StripeWebhookEvent.Status.FAILED, failed.getStatus());
+		assertEquals(3, failed.getAttempts());
+		assertEquals("java.lang.IllegalArgumentException: unknown price", failed.getLastError());
+		verify(oauthService, never()).updatePlans(anyList());
+	}
+
+	// Zero retry delay, so a failed event is due again on the next batch
+	private StripeWebhookProcessor processor(int maxAttempts) {
+		return new StripeWebhookProcessor(inbox.repository, stripeService, oauthService, inbox, 0, 50,
+				Duration.ofSeconds(5), Duration.ZERO, Duration.ZERO, maxAttempts);
+	}
+
+	private static Event event(String id) {
+		Event event = new Event();
+		event.setId(id);
+		event.setType("checkout.session.completed");
+		event.setCreated(CHANGE.created());
+		return event;
+	}
+
+	private static final class FakeInbox implements PlatformTransactionManager {
+		private final Map<String, StripeWebhookEvent> committed = new LinkedHashMap<>();
+		// Rows loaded by each open transaction, innermost first
+		private final Deque<Map<String, StripeWebhookEvent>> open = new ArrayDeque<>();
+		final StripeWebhookEventRepository repository = mock(StripeWebhookEventRepository.class);
+
+		FakeInbox() {
+			when(repository.insertIfAbsent(anyString(), anyString(), anyLong(), anyString())).thenAnswer(invocation -> {
+				String id = invocation.getArgument(0);
+				if (committed.containsKey(id)) {
+					return 0;
+				}
+				StripeWebhookEvent row = new StripeWebhookEvent();
+				ReflectionTestUtils.setField(row, "eventId", id);
+				ReflectionTestUtils.setField(row, "type", invocation.getArgument(1));
+				ReflectionTestUtils.setField(row, "created", (long) invocation.getArgument(2));
+				ReflectionTestUtils.setField(row, "payload", invocation.getArgument(3));
+				ReflectionTestUtils.setField(row, "receivedAt", Instant.now());
+				ReflectionTestUtils.setField(row, "nextAttemptAt", Instant.now());
+				committed.put(id, row);
+				return 1;
+			});
+			when(repository.claimDue(anyInt())).thenAnswer(invocation -> committed.values().stream()
+					.filter(row -> row.getStatus() == StripeWebhookEvent.Status.PENDING)
+					.filter(row -> !((Instant) ReflectionTestUtils.getField(row, "nextAttemptAt")).isAfter(Instant.now()))
+					.filter(row -> open.stream().noneMatch(tx -> tx.containsKey(row.getEventId())))
+					.limit((int) invocation.getArgument(0))
+					.map(this::load)
+					.toList());
+			when(repository.findAllById(anyList())).thenAnswer(invocation -> ((List<String>) invocation.getArgument(0))
+					.stream().map(id -> load(committed.get(id))).toList());
+		}
+
+		StripeWebhookEvent committed(String id) {
+			return committed.get(id);
+		}
+
+		private StripeWebhookEvent load(StripeWebhookEvent row) {
+			StripeWebhookEvent copy = copy(row);
+			open.peek().put(copy.getEventId(), copy);
+			return copy;
+		}
+
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			open.push(new LinkedHashMap<>());
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+			open.pop().forEach((id, row) -> committed.put(id, copy(row)));
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+			open.pop();
+		}
+
+		private static StripeWebhookEvent copy(StripeWebhookEvent row) {
+			StripeWebhookEvent copy = new StripeWebhookEvent();
+			for (Field field : StripeWebhookEvent.class.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					ReflectionTestUtils.setField(copy, field.getName(), ReflectionTestUtils.getField(row, field.getName()));
+				}
+			}
+			return copy;
+		}
+	}
+}
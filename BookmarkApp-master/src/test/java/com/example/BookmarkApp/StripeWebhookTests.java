@@ -0,0 +1,116 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
+
+/**
+ * Webhook pipeline against fixture payloads signed locally the way Stripe signs them
+ * ("t=<timestamp>,v1=<hex HMAC-SHA256 of timestamp.payload>").
+ */
+class StripeWebhookTests {
+
+	private static final String SECRET = "whsec_test_fixture_secret";
+
+	@Test
+	void signedEventIsStoredAndAcked() throws Exception {
+		StripeWebhookProcessor processor = mock(StripeWebhookProcessor.class);
+		when(processor.enqueue(any(), any())).thenReturn(true, false);
+		StripeController controller = controller(processor);
+		String payload = fixture("checkout-session-completed.json");
+
+		ResponseEntity<String> first = controller.handleWebhook(payload, sign(payload, SECRET));
+		ResponseEntity<String> redelivery = controller.handleWebhook(payload, sign(payload, SECRET));
+
+		assertEquals(200, first.getStatusCode().value());
+		assertEquals(200, redelivery.getStatusCode().value());
+		verify(processor, times(2))
+				.enqueue(argThat(event -> "evt_test_checkout_completed".equals(event.getId())), eq(payload));
+	}
+
+	@Test
+	void badSignatureIsRejectedBeforeTheInbox() throws Exception {
+		StripeWebhookProcessor processor = mock(StripeWebhookProcessor.class);
+		StripeController controller = controller(processor);
+		String payload = fixture("checkout-session-completed.json");
+
+		assertEquals(400, controller.handleWebhook(payload, sign(payload, "whsec_wrong")).getStatusCode().value());
+		assertEquals(400, controller.handleWebhook(payload.replace("Pro", "Ultra"), sign(payload, SECRET)).getStatusCode().value());
+		assertEquals(400, controller.handleWebhook(payload, null).getStatusCode().value());
+		verifyNoInteractions(processor);
+	}
+
+	@Test
+	void eventsMapToPlanChanges() throws Exception {
+		StripeService stripeService = new StripeService(null);
+
+		Event completed = signedEvent("checkout-session-completed.json");
+		assertEquals(Optional.of(new StripeService.PlanChange("alice", "Pro", 1760000000L)),
+				stripeService.processWebhookEvent(completed));
+
+		Event deleted = signedEvent("customer-subscription-deleted.json");
+		assertEquals(Optional.of(new StripeService.PlanChange("alice", "Free", 1760000100L)),
+				stripeService.processWebhookEvent(deleted));
+	}
+
+	@Test
+	void retriesBackOffExponentiallyUpToTheCap() {
+		Duration base = Duration.ofSeconds(2);
+		Duration max = Duration.ofMinutes(10);
+		assertEquals(Duration.ofSeconds(2), StripeWebhookProcessor.backoff(1, base, max));
+		assertEquals(Duration.ofSeconds(4), StripeWebhookProcessor.backoff(2, base, max));
+		assertEquals(Duration.ofSeconds(256), StripeWebhookProcessor.backoff(8, base, max));
+		assertEquals(Duration.ofSeconds(512), StripeWebhookProcessor.backoff(9, base, max));
+		assertEquals(max, StripeWebhookProcessor.backoff(10, base, max));
+		assertEquals(max, StripeWebhookProcessor.backoff(100, base, max));
+	}
+
+	private static StripeController controller(StripeWebhookProcessor processor) {
+		StripeController controller = new StripeController(null, null, processor, null);
+		ReflectionTestUtils.setField(controller, "webhookSecret", SECRET);
+		return controller;
+	}
+
+	private static Event signedEvent(String name) throws Exception {
+		String payload = fixture(name);
+		return Webhook.constructEvent(payload, sign(payload, SECRET), SECRET);
+	}
+
+	static String sign(String payload, String secret) throws Exception {
+		long timestamp = Instant.now().getEpochSecond();
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		byte[] signature = mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+		return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(signature);
+	}
+
+	private static String fixture(String name) throws IOException {
+		try (InputStream in = StripeWebhookTests.class.getResourceAsStream("/stripe/" + name)) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.example.BookmarkApp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Thread-per-request pool (Tomcat's default 200 threads) against virtual threads
+ * (what spring.threads.virtual.enabled installs), on an embedded Tomcat whose handler
+ * blocks like a Stripe/OAuth/JDBC round trip. Reports throughput and p50/p99 latency
+ * and writes them to target/benchmarks/thread-model.json.
+ *
+ * Opt-in: mvn test -Dtest=ThreadModelBenchmark -Dbenchmark=true
+ *   [-Dbenchmark.sessions=5000 -Dbenchmark.requests=20 -Dbenchmark.blockingMillis=50]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadModelBenchmark {
+
+	private static final int CLIENT_SESSIONS = 250;
+
+	private final int sessions = Integer.getInteger("benchmark.sessions", 5000);
+	private final int requestsPerSession = Integer.getInteger("benchmark.requests", 20);
+	private final int blockingMillis = Integer.getInteger("benchmark.blockingMillis", 50);
+
+	@Test
+	void compareThreadModels() throws Exception {
+		Result platform = run(false);
+		Result virtual = run(true);
+		System.out.println(platform);
+		System.out.println(virtual);
+
+		Path out = Path.of("target", "benchmarks", "thread-model.json");
+		Files.createDirectories(out.getParent());
+		Files.writeString(out, "{\"sessions\":" + sessions + ",\"requestsPerSession\":" + requestsPerSession
+				+ ",\"blockingMillis\":" + blockingMillis + ",\"results\":[" + platform.toJson() + "," + virtual.toJson() + "]}\n");
+	}
+
+	private Result run(boolean virtualThreads) throws Exception {
+		Tomcat tomcat = startTomcat(virtualThreads);
+		int port = tomcat.getConnector().getLocalPort();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/work"))
+				.timeout(Duration.ofMinutes(2)).build();
+		long[][] latencies = new long[sessions][];
+
+		ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+		// Several clients, so one HttpClient selector thread does not become the bottleneck
+		HttpClient[] httpClients = new HttpClient[Math.max(1, sessions / CLIENT_SESSIONS)];
+		for (int i = 0; i < httpClients.length; i++) {
+			httpClients[i] = HttpClient.newBuilder().executor(clients).build();
+		}
+		try {
+			long start = System.nanoTime();
+			List<Future<?>> futures = new ArrayList<>(sessions);
+			for (int s = 0; s < sessions; s++) {
+				int session = s;
+				HttpClient client = httpClients[s % httpClients.length];
+				futures.add(clients.submit(() -> {
+					long[] sessionLatencies = new long[requestsPerSession];
+					for (int r = 0; r < requestsPerSession; r++) {
+						long sent = System.nanoTime();
+						client.send(request, HttpResponse.BodyHandlers.discarding());
+						sessionLatencies[r] = System.nanoTime() - sent;
+					}
+					latencies[session] = sessionLatencies;
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			long elapsed = System.nanoTime() - start;
+			return new Result(virtualThreads ? "virtual" : "platform-200",
+					Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray(), elapsed);
+		} finally {
+			for (HttpClient client : httpClients) {
+				client.close();
+			}
+			clients.close();
+			tomcat.stop();
+			tomcat.destroy();
+		}
+	}
+
+	private Tomcat startTomcat(boolean virtualThreads) throws Exception {
+		Tomcat tomcat = new Tomcat();
+		tomcat.setBaseDir(Files.createTempDirectory("thread-model-benchmark").toString());
+		Connector connector = new Connector("HTTP/1.1");
+		connector.setPort(0);
+		// Same socket limits for both runs, so only the execution model differs
+		connector.setProperty("acceptCount", String.valueOf(sessions));
+		connector.setProperty("maxConnections", String.valueOf(sessions * 2));
+		if (virtualThreads) {
+			((AbstractProtocol<?>) connector.getProtocolHandler()).setExecutor(new VirtualThreadExecutor("benchmark-vt-"));
+		}
+		tomcat.setConnector(connector);
+
+		Context context = tomcat.addContext("", null);
+		Tomcat.addServlet(context, "work", new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				try {
+					Thread.sleep(blockingMillis); // stands in for a blocking outbound call
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				resp.getWriter().write("ok");
+			}
+		});
+		context.addServletMappingDecoded("/work", "work");
+		tomcat.start();
+		return tomcat;
+	}
+
+	private record Result(String mode, long[] sortedLatencies, long elapsedNanos) {
+
+		double throughput() {
+			return sortedLatencies.length / (elapsedNanos / 1e9);
+		}
+
+		double percentileMillis(double percentile) {
+			int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+			return sortedLatencies[Math.max(0, index)] / 1e6;
+		}
+
+		String toJson() {
+			return String.format("{\"mode\":\"%s\",\"requests\":%d,\"throughputPerSecond\":%.1f,\"p50Millis\":%.2f,\"p99Millis\":%.2f}",
+					mode, sortedLatencies.length, throughput(), percentileMillis(0.50), percentileMillis(0.99));
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-13s %8d req  %10.1f req/s  p50 %8.2f ms  p99 %8.2f ms",
+					mode, sortedLatencies.length, throughput(), percentileMillis(0.50), percentileMillis(0.99));
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class UsernamePrefixIndexTests {
+
+	@Test
+	void prefixSearchIsCaseInsensitiveAndPaged() {
+		UsernamePrefixIndex index = new UsernamePrefixIndex(null, null, null, Duration.ofSeconds(30));
+		assertNull(index.search("a", null, 10));
+
+		index.load(Stream.of("bob", "Alice", "alex", "albert", "Bobby", "carol"));
+		assertEquals(List.of("albert", "alex", "Alice"), index.search("AL", null, 10));
+		assertEquals(List.of("albert", "alex"), index.search("al", null, 2));
+		assertEquals(List.of("Alice"), index.search("al", "alex", 2));
+		assertEquals(List.of("bob", "Bobby"), index.search("bob", null, 10));
+
+		index.add("alfred");
+		assertEquals(List.of("albert", "alex", "alfred", "Alice"), index.search("al", null, 10));
+	}
+
+	@Test
+	void refreshAddsAccountsFromOtherInstancesOnce() {
+		OauthRepository repository = mock(OauthRepository.class);
+		UsernamePrefixIndex index = new UsernamePrefixIndex(repository, null, mock(PlatformTransactionManager.class),
+				Duration.ofSeconds(30));
+		index.load(Stream.of("alice"));
+
+		when(repository.streamAccountsAfter(0L)).thenReturn(Stream.<Object[]>of(
+				new Object[] { 1L, "alice", "alice@example.com" },
+				new Object[] { 2L, "alfred", "alfred@example.com" }));
+		index.refresh();
+		assertEquals(List.of("alfred", "alice"), index.search("al", null, 10));
+
+		// The next refresh re-reads the overlap; already indexed names are not added twice
+		when(repository.streamAccountsAfter(0L)).thenReturn(Stream.<Object[]>of(
+				new Object[] { 2L, "alfred", "alfred@example.com" },
+				new Object[] { 3L, "albert", "albert@example.com" }));
+		index.refresh();
+		assertEquals(List.of("albert", "alfred", "alice"), index.search("al", null, 10));
+	}
+
+	@Test
+	void newAccountsSurviveMergeIntoTheArray() {
+		UsernamePrefixIndex index = new UsernamePrefixIndex(null, null, null, Duration.ofSeconds(30));
+		index.load(Stream.of("user00000"));
+		IntStream.range(1, 5000).forEach(i -> index.add(String.format("user%05d", i)));
+
+		assertEquals(List.of("user04998", "user04999"), index.search("user049", "user04997", 10));
+		assertEquals(5000, index.search("user", null, 10_000).size());
+	}
+}
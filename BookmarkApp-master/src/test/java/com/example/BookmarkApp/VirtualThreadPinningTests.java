@@ -0,0 +1,69 @@
+package com.example.BookmarkApp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bulk import parsing on many virtual threads over slow, blocking input, as it runs
+ * under spring.threads.virtual.enabled. PinnedVirtualThreadExtension fails this class
+ * if any of it pins a carrier thread.
+ */
+class VirtualThreadPinningTests {
+
+	private static final int THREADS = 500;
+
+	@Test
+	void importParsersDoNotPinCarrierThreads() throws Exception {
+		String html = "<DL><p>\n" + "    <DT><A HREF=\"https://example.com/\" TAGS=\"a\">Example</A>\n".repeat(20) + "</DL><p>\n";
+		String json = "{\"roots\": {\"bookmark_bar\": {\"children\": ["
+				+ "{\"name\": \"Example\", \"type\": \"url\", \"url\": \"https://example.com/\"},".repeat(19)
+				+ "{\"name\": \"Example\", \"type\": \"url\", \"url\": \"https://example.com/\"}]}}}";
+		AtomicInteger parsed = new AtomicInteger();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					BookmarkImportParser.parseNetscapeHtml(
+							new InputStreamReader(slow(html), StandardCharsets.UTF_8), entry -> parsed.incrementAndGet());
+					BookmarkImportParser.parseJson(slow(json), entry -> parsed.incrementAndGet());
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		assertEquals(THREADS * 40, parsed.get());
+	}
+
+	// Hands out at most 64 bytes per read and blocks briefly, like a slow upload
+	private static InputStream slow(String content) {
+		return new FilterInputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))) {
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				try {
+					Thread.sleep(1);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException(e);
+				}
+				return super.read(buffer, offset, Math.min(length, 64));
+			}
+		};
+	}
+}